@@ -0,0 +1,135 @@
+package com.qs.core.benchmark;
+
+import com.qs.core.QS;
+import com.qs.core.model.ParseOptions;
+import com.qs.core.model.QSObject;
+import com.qs.core.model.StringifyOptions;
+import com.qs.core.parser.ParseException;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * 基准测试使用的 query string，内容固定，保证每次运行的结果可以比较
+ */
+public enum Corpus {
+    // 常见的表单提交：k0=v0&k1=v1...
+    FLAT {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                append(sb, "field" + i, "value" + i);
+            }
+            return sb.toString();
+        }
+    },
+    // 多层对象和对象数组，深度到 ParseOptions.DEPTH
+    NESTED {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                append(sb, "filter[and][" + i + "][field]", "name" + i);
+                append(sb, "filter[and][" + i + "][op]", i % 2 == 0 ? "eq" : "ne");
+                append(sb, "filter[and][" + i + "][value][min]", String.valueOf(i));
+                append(sb, "filter[and][" + i + "][value][max]", String.valueOf(i * 10));
+            }
+            for (int i = 0; i < 5; i++) {
+                append(sb, "sort[" + i + "][by]", "column" + i);
+                append(sb, "sort[" + i + "][desc]", String.valueOf(i % 2 == 0));
+            }
+            append(sb, "page[size]", "20");
+            append(sb, "page[number]", "3");
+            return sb.toString();
+        }
+    },
+    // key 和 value 大部分需要 percent-encoding，包含多字节字符
+    ENCODED {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 20; i++) {
+                append(sb, encode("名称[" + i + "]"), encode("值 " + i + " & =?/#%+ 中文 ❤"));
+                append(sb, encode("q" + i), encode("select * from t where a = '" + i + "'"));
+            }
+            return sb.toString();
+        }
+    },
+    // 逗号分隔的数组，以 comma 解析
+    COMMA {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                StringBuilder value = new StringBuilder();
+                for (int j = 0; j < 10; j++) {
+                    if (j > 0) value.append(',');
+                    value.append("item").append(i * 10 + j);
+                }
+                append(sb, "list" + i, value.toString());
+            }
+            return sb.toString();
+        }
+
+        @Override
+        ParseOptions parseOptions() {
+            return new ParseOptions.Builder().setComma(true).build();
+        }
+    },
+    // 以点号表示嵌套，以 allowDots 解析和生成
+    DOTS {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                append(sb, "user" + i + ".name.first", "first" + i);
+                append(sb, "user" + i + ".name.last", "last" + i);
+                append(sb, "user" + i + ".address.city", "city" + i);
+                append(sb, "user" + i + ".tags[]", "tag" + i);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        ParseOptions parseOptions() {
+            return new ParseOptions.Builder().setAllowDots(true).build();
+        }
+
+        @Override
+        StringifyOptions.Builder stringifyOptions() {
+            return new StringifyOptions.Builder().setAllowDots(true);
+        }
+    };
+
+    abstract String build();
+
+    ParseOptions parseOptions() {
+        return new ParseOptions.Builder().build();
+    }
+
+    StringifyOptions.Builder stringifyOptions() {
+        return new StringifyOptions.Builder();
+    }
+
+    QSObject parse(String query) {
+        try {
+            return QS.parse(query, parseOptions());
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void append(StringBuilder sb, String key, String value) {
+        if (sb.length() > 0) sb.append('&');
+        sb.append(key).append('=').append(value);
+    }
+
+    private static String encode(String s) {
+        try {
+            return URLEncoder.encode(s, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
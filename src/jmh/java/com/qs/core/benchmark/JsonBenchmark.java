@@ -0,0 +1,37 @@
+package com.qs.core.benchmark;
+
+import com.qs.core.model.QSObject;
+import com.qs.core.stringify.Stringifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stringifier.toJsonString 在各个 {@link Corpus} 上的性能，与 ArrayFormat 无关
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private QSObject mObject;
+
+    @Setup
+    public void setup() {
+        mObject = corpus.parse(corpus.build());
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return Stringifier.toJsonString(mObject);
+    }
+}
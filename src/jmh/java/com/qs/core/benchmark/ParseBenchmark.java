@@ -0,0 +1,41 @@
+package com.qs.core.benchmark;
+
+import com.qs.core.QS;
+import com.qs.core.model.ParseOptions;
+import com.qs.core.model.QSObject;
+import com.qs.core.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QS.parse 在各个 {@link Corpus} 上的性能
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParseBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private String mQuery;
+    private ParseOptions mOptions;
+
+    @Setup
+    public void setup() {
+        mQuery = corpus.build();
+        mOptions = corpus.parseOptions();
+    }
+
+    @Benchmark
+    public QSObject parse() throws ParseException {
+        return QS.parse(mQuery, mOptions);
+    }
+}
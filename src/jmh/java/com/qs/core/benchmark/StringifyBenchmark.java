@@ -0,0 +1,44 @@
+package com.qs.core.benchmark;
+
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.QSObject;
+import com.qs.core.model.StringifyOptions;
+import com.qs.core.stringify.Stringifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stringifier.toQString 在各个 {@link Corpus} 和 {@link ArrayFormat} 上的性能
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StringifyBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    @Param
+    public ArrayFormat arrayFormat;
+
+    private QSObject mObject;
+    private StringifyOptions mOptions;
+
+    @Setup
+    public void setup() {
+        mObject = corpus.parse(corpus.build());
+        mOptions = corpus.stringifyOptions().setArrayFormat(arrayFormat).build();
+    }
+
+    @Benchmark
+    public String toQString() {
+        return Stringifier.toQString(mObject, mOptions);
+    }
+}
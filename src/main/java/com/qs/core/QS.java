@@ -1,14 +1,20 @@
 package com.qs.core;
 
+import com.qs.core.bind.QSBinder;
 import com.qs.core.model.ParseOptions;
 import com.qs.core.model.QSObject;
 import com.qs.core.model.StringifyOptions;
 import com.qs.core.parser.ParseException;
 import com.qs.core.parser.QSParser;
+import com.qs.core.parser.QSScanner;
+import com.qs.core.stringify.JsonQueryTranscoder;
+import com.qs.core.stringify.QueryJsonTranscoder;
 import com.qs.core.stringify.Stringifier;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 public class QS {
 
@@ -30,6 +36,30 @@ public class QS {
         return parser.parse(in, options);
     }
 
+    public static <T> T parse(String s, Class<T> type) throws ParseException {
+        return QSBinder.bind(s, type);
+    }
+
+    public static <T> T parse(String s, Class<T> type, ParseOptions options) throws ParseException {
+        return QSBinder.bind(s, type, options);
+    }
+
+    public static String getFirst(String s, String key) {
+        return QSScanner.getFirst(s, key);
+    }
+
+    public static String getFirst(String s, String key, ParseOptions options) {
+        return QSScanner.getFirst(s, key, options);
+    }
+
+    public static List<String> getAll(String s, String key) {
+        return QSScanner.getAll(s, key);
+    }
+
+    public static List<String> getAll(String s, String key, ParseOptions options) {
+        return QSScanner.getAll(s, key, options);
+    }
+
     public static String toQString(QSObject object) {
         return Stringifier.toQString(object);
     }
@@ -38,7 +68,88 @@ public class QS {
         return Stringifier.toQString(object, options);
     }
 
+    public static void toQString(QSObject object, StringifyOptions options, Appendable out) throws IOException {
+        Stringifier.toQString(object, options, out);
+    }
+
+    public static byte[] toQBytes(QSObject object) {
+        return Stringifier.toQBytes(object, new StringifyOptions.Builder().build());
+    }
+
+    public static byte[] toQBytes(QSObject object, StringifyOptions options) {
+        return Stringifier.toQBytes(object, options);
+    }
+
+    public static void toQBytes(QSObject object, StringifyOptions options, ByteBuffer out) {
+        Stringifier.toQBytes(object, options, out);
+    }
+
+    /**
+     * 规范形式（key 排序）的 64 位 hash，key 顺序不同但内容相同的 query 得到相同的值
+     */
+    public static long canonicalHash(QSObject object) {
+        byte[] hash = Stringifier.canonicalHash(object);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static long canonicalHash(String s) throws ParseException {
+        return canonicalHash(parse(s));
+    }
+
+    public static long canonicalHash(String s, ParseOptions options) throws ParseException {
+        return canonicalHash(parse(s, options));
+    }
+
+    /**
+     * 规范形式的 128 位 hash（16 字节）
+     */
+    public static byte[] canonicalHash128(QSObject object) {
+        return Stringifier.canonicalHash(object);
+    }
+
+    public static byte[] canonicalHash128(String s) throws ParseException {
+        return canonicalHash128(parse(s));
+    }
+
+    /**
+     * 不构建中间对象，直接将 JSON 对象转为 query string
+     */
+    public static String jsonToQuery(String json) throws ParseException {
+        return JsonQueryTranscoder.toQString(json, new StringifyOptions.Builder().build());
+    }
+
+    public static String jsonToQuery(String json, StringifyOptions options) throws ParseException {
+        return JsonQueryTranscoder.toQString(json, options);
+    }
+
+    public static void jsonToQuery(Reader json, StringifyOptions options, Appendable out) throws IOException, ParseException {
+        JsonQueryTranscoder.toQString(json, options, out);
+    }
+
     public static String toJsonString(QSObject object) {
         return Stringifier.toJsonString(object);
     }
+
+    public static void toJsonString(QSObject object, Appendable out) throws IOException {
+        Stringifier.toJsonString(object, out);
+    }
+
+    /**
+     * 不构建 QSObject，直接将 query string 转为 JSON，见 {@link QueryJsonTranscoder}
+     */
+    public static String queryToJson(String s) throws ParseException {
+        return QueryJsonTranscoder.toJsonString(s, new ParseOptions.Builder().build());
+    }
+
+    public static String queryToJson(String s, ParseOptions options) throws ParseException {
+        return QueryJsonTranscoder.toJsonString(s, options);
+    }
+
+    public static byte[] queryToJsonBytes(String s, ParseOptions options) throws ParseException {
+        return QueryJsonTranscoder.toJsonBytes(s, options);
+    }
 }
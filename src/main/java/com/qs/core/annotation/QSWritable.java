@@ -0,0 +1,33 @@
+package com.qs.core.annotation;
+
+import com.qs.core.model.ArrayFormat;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成 {@link com.qs.core.stringify.QSWriter} 的类，生成类与被标记类同包，
+ * 运行时通过 {@link com.qs.core.stringify.QSWriters#of(Class)} 获取。
+ * <p>
+ * 各属性与 {@link com.qs.core.model.StringifyOptions} 同名选项含义一致，在编译期固定。
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface QSWritable {
+
+    ArrayFormat arrayFormat() default ArrayFormat.INDICES;
+
+    boolean allowDots() default false;
+
+    boolean encode() default true;
+
+    boolean encodeValuesOnly() default false;
+
+    boolean skipNulls() default false;
+
+    boolean strictNullHandling() default false;
+}
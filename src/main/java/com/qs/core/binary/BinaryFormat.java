@@ -0,0 +1,73 @@
+package com.qs.core.binary;
+
+/**
+ * 二进制格式：
+ * <pre>
+ * header  = 'Q' 'S' 'B' version flags [dictionary]
+ * dictionary = count (key-length key-bytes)*        flags & FLAG_DICTIONARY 时存在
+ * value   = TYPE_NULL
+ *         | TYPE_STRING length bytes
+ *         | TYPE_INT zigzag | TYPE_LONG zigzag
+ *         | TYPE_OBJECT count body-length (key value)*
+ *         | TYPE_ARRAY count body-length value*
+ * key     = 字典下标 | length bytes
+ * </pre>
+ * 根节点为 TYPE_OBJECT。长度、数量和字典下标均为无符号 varint，字符串为 UTF-8；
+ * 对象和数组记录 body 的字节数，读取时可以直接跳过整个子树。
+ */
+final class BinaryFormat {
+
+    static final byte[] MAGIC = {'Q', 'S', 'B'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 5;
+
+    static final int FLAG_DICTIONARY = 1;
+
+    static final byte TYPE_NULL = 0;
+    static final byte TYPE_STRING = 1;
+    static final byte TYPE_INT = 2;
+    static final byte TYPE_LONG = 3;
+    static final byte TYPE_OBJECT = 4;
+    static final byte TYPE_ARRAY = 5;
+
+    private BinaryFormat() {
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * UTF-8 编码后的字节数，单独的代理字符按 '?' 计算
+     */
+    static int utf8Length(String s) {
+        int length = s.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80) continue;
+            if (ch < 0x800) {
+                size += 1;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                size += 2;
+                i++;
+            } else if (!Character.isSurrogate(ch)) {
+                size += 2;
+            }
+        }
+        return size;
+    }
+}
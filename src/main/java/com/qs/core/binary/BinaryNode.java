@@ -0,0 +1,247 @@
+package com.qs.core.binary;
+
+import com.qs.core.model.QSArray;
+import com.qs.core.model.QSObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BinaryReader} 中的一个 value，只记录位置，读取时才解码。
+ * <p>
+ * 对象按 key 查找时逐个比较 key 的字节（有字典时比较下标），跳过不匹配的 value；数组按下标查找时同样跳过前面的元素。
+ */
+public final class BinaryNode {
+
+    private final BinaryReader mReader;
+    private final ByteBuffer mBuffer;
+    private final int mOffset;
+
+    BinaryNode(BinaryReader reader, int offset) {
+        this.mReader = reader;
+        this.mBuffer = reader.getBuffer();
+        this.mOffset = offset;
+    }
+
+    public boolean isNull() {
+        return type() == BinaryFormat.TYPE_NULL;
+    }
+
+    public boolean isString() {
+        return type() == BinaryFormat.TYPE_STRING;
+    }
+
+    /**
+     * Integer 或 Long
+     */
+    public boolean isNumber() {
+        return type() == BinaryFormat.TYPE_INT || type() == BinaryFormat.TYPE_LONG;
+    }
+
+    public boolean isObject() {
+        return type() == BinaryFormat.TYPE_OBJECT;
+    }
+
+    public boolean isArray() {
+        return type() == BinaryFormat.TYPE_ARRAY;
+    }
+
+    /**
+     * 对象的 key 数量或数组的长度
+     */
+    public int size() {
+        checkContainer();
+        return (int) BinaryReader.readVarint(mBuffer, mOffset + 1);
+    }
+
+    /**
+     * 不是对象或 key 不存在时返回 null
+     */
+    public BinaryNode get(String key) {
+        if (!isObject()) return null;
+        int count = size();
+        int pos = bodyStart();
+        if (mReader.hasDictionary()) {
+            int index = mReader.keyIndex(key);
+            if (index < 0) return null;
+            for (int i = 0; i < count; i++) {
+                long keyIndex = BinaryReader.readVarint(mBuffer, pos);
+                pos = BinaryReader.skipVarint(mBuffer, pos);
+                if (keyIndex == index) return new BinaryNode(mReader, pos);
+                pos = skipValue(pos);
+            }
+            return null;
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < count; i++) {
+            int length = (int) BinaryReader.readVarint(mBuffer, pos);
+            pos = BinaryReader.skipVarint(mBuffer, pos);
+            boolean match = length == bytes.length && equalBytes(pos, bytes);
+            pos += length;
+            if (match) return new BinaryNode(mReader, pos);
+            pos = skipValue(pos);
+        }
+        return null;
+    }
+
+    /**
+     * 不是数组或下标越界时返回 null
+     */
+    public BinaryNode get(int index) {
+        if (!isArray() || index < 0 || index >= size()) return null;
+        int pos = bodyStart();
+        for (int i = 0; i < index; i++) {
+            pos = skipValue(pos);
+        }
+        return new BinaryNode(mReader, pos);
+    }
+
+    /**
+     * 对象的全部 key，按写入顺序
+     */
+    public List<String> getKeys() {
+        if (!isObject()) throw new IllegalStateException("not an object");
+        int count = size();
+        List<String> keys = new ArrayList<>(count);
+        int pos = bodyStart();
+        for (int i = 0; i < count; i++) {
+            pos = readKey(pos, keys);
+            pos = skipValue(pos);
+        }
+        return keys;
+    }
+
+    /**
+     * 字符串原样返回，数字转为字符串，null 返回 null；对象和数组抛出 IllegalStateException
+     */
+    public String asString() {
+        switch (type()) {
+            case BinaryFormat.TYPE_NULL:
+                return null;
+            case BinaryFormat.TYPE_STRING:
+                return readString(mOffset + 1);
+            case BinaryFormat.TYPE_INT:
+            case BinaryFormat.TYPE_LONG:
+                return String.valueOf(readNumber());
+            default:
+                throw new IllegalStateException("not a value");
+        }
+    }
+
+    /**
+     * 数字直接返回，字符串按十进制解析
+     */
+    public long asLong() {
+        if (isNumber()) return readNumber();
+        if (isString()) return Long.parseLong(asString());
+        throw new IllegalStateException("not a number");
+    }
+
+    /**
+     * 解码为 QSObject、QSArray、String、Integer、Long 或 null
+     */
+    public Object toValue() {
+        switch (type()) {
+            case BinaryFormat.TYPE_NULL:
+                return null;
+            case BinaryFormat.TYPE_STRING:
+                return readString(mOffset + 1);
+            case BinaryFormat.TYPE_INT:
+                return (int) readNumber();
+            case BinaryFormat.TYPE_LONG:
+                return readNumber();
+            case BinaryFormat.TYPE_OBJECT: {
+                int count = size();
+                QSObject object = new QSObject(count);
+                List<String> keys = new ArrayList<>(1);
+                int pos = bodyStart();
+                for (int i = 0; i < count; i++) {
+                    keys.clear();
+                    pos = readKey(pos, keys);
+                    object.put(keys.get(0), new BinaryNode(mReader, pos).toValue());
+                    pos = skipValue(pos);
+                }
+                return object;
+            }
+            case BinaryFormat.TYPE_ARRAY: {
+                int count = size();
+                QSArray array = new QSArray(count);
+                int pos = bodyStart();
+                for (int i = 0; i < count; i++) {
+                    array.add(new BinaryNode(mReader, pos).toValue());
+                    pos = skipValue(pos);
+                }
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("unknown type " + type());
+        }
+    }
+
+    private int type() {
+        return mBuffer.get(mOffset);
+    }
+
+    private void checkContainer() {
+        if (!isObject() && !isArray()) throw new IllegalStateException("not an object or array");
+    }
+
+    private int bodyStart() {
+        return BinaryReader.skipVarint(mBuffer, BinaryReader.skipVarint(mBuffer, mOffset + 1));
+    }
+
+    private long readNumber() {
+        return BinaryFormat.unzigzag(BinaryReader.readVarint(mBuffer, mOffset + 1));
+    }
+
+    private String readString(int pos) {
+        int length = (int) BinaryReader.readVarint(mBuffer, pos);
+        return BinaryReader.decode(mBuffer, BinaryReader.skipVarint(mBuffer, pos), length);
+    }
+
+    private int readKey(int pos, List<String> keys) {
+        if (mReader.hasDictionary()) {
+            keys.add(mReader.key((int) BinaryReader.readVarint(mBuffer, pos)));
+            return BinaryReader.skipVarint(mBuffer, pos);
+        }
+        int length = (int) BinaryReader.readVarint(mBuffer, pos);
+        int start = BinaryReader.skipVarint(mBuffer, pos);
+        keys.add(BinaryReader.decode(mBuffer, start, length));
+        return start + length;
+    }
+
+    /**
+     * 返回 pos 处 value 之后的位置
+     */
+    private int skipValue(int pos) {
+        switch (mBuffer.get(pos)) {
+            case BinaryFormat.TYPE_NULL:
+                return pos + 1;
+            case BinaryFormat.TYPE_STRING: {
+                int length = (int) BinaryReader.readVarint(mBuffer, pos + 1);
+                return BinaryReader.skipVarint(mBuffer, pos + 1) + length;
+            }
+            case BinaryFormat.TYPE_INT:
+            case BinaryFormat.TYPE_LONG:
+                return BinaryReader.skipVarint(mBuffer, pos + 1);
+            case BinaryFormat.TYPE_OBJECT:
+            case BinaryFormat.TYPE_ARRAY: {
+                int lengthPos = BinaryReader.skipVarint(mBuffer, pos + 1);
+                int length = (int) BinaryReader.readVarint(mBuffer, lengthPos);
+                return BinaryReader.skipVarint(mBuffer, lengthPos) + length;
+            }
+            default:
+                throw new IllegalArgumentException("unknown type " + mBuffer.get(pos));
+        }
+    }
+
+    private boolean equalBytes(int pos, byte[] bytes) {
+        if (pos + bytes.length > mBuffer.limit()) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (mBuffer.get(pos + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+}
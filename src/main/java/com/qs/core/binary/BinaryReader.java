@@ -0,0 +1,129 @@
+package com.qs.core.binary;
+
+import com.qs.core.model.QSObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 读取 {@link BinaryWriter} 写出的二进制数据。
+ * <p>
+ * 直接在 ByteBuffer 上按需读取（{@link #root()}），只解码访问到的 key 和 value，不构建整棵树；
+ * 需要完整的对象时使用 {@link #toQSObject()}。只使用绝对位置读取，不修改 buffer 的 position，
+ * buffer 内容不变时可在多线程中共享。
+ * 头部格式错误时抛出 IllegalArgumentException，数据截断时读取会抛出 IndexOutOfBoundsException。
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer mBuffer;
+    // 没有 key 字典时为 null
+    private final String[] mKeys;
+    private final Map<String, Integer> mKeyIndexes;
+    private final int mRoot;
+
+    private BinaryReader(ByteBuffer buffer, String[] keys, Map<String, Integer> keyIndexes, int root) {
+        this.mBuffer = buffer;
+        this.mKeys = keys;
+        this.mKeyIndexes = keyIndexes;
+        this.mRoot = root;
+    }
+
+    public static BinaryReader of(byte[] bytes) {
+        return of(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 从 buffer 的当前 position 开始读取
+     */
+    public static BinaryReader of(ByteBuffer buffer) {
+        int pos = buffer.position();
+        if (buffer.limit() - pos < BinaryFormat.HEADER_SIZE + 1
+                || buffer.get(pos) != BinaryFormat.MAGIC[0] || buffer.get(pos + 1) != BinaryFormat.MAGIC[1]
+                || buffer.get(pos + 2) != BinaryFormat.MAGIC[2]) {
+            throw new IllegalArgumentException("not a qs binary buffer");
+        }
+        if (buffer.get(pos + 3) != BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("unsupported version " + buffer.get(pos + 3));
+        }
+        int flags = buffer.get(pos + 4);
+        pos += BinaryFormat.HEADER_SIZE;
+        String[] keys = null;
+        Map<String, Integer> keyIndexes = null;
+        if ((flags & BinaryFormat.FLAG_DICTIONARY) != 0) {
+            int count = (int) readVarint(buffer, pos);
+            pos = skipVarint(buffer, pos);
+            keys = new String[count];
+            keyIndexes = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int length = (int) readVarint(buffer, pos);
+                pos = skipVarint(buffer, pos);
+                keys[i] = decode(buffer, pos, length);
+                keyIndexes.put(keys[i], i);
+                pos += length;
+            }
+        }
+        if (buffer.get(pos) != BinaryFormat.TYPE_OBJECT) {
+            throw new IllegalArgumentException("root must be an object");
+        }
+        return new BinaryReader(buffer, keys, keyIndexes, pos);
+    }
+
+    public BinaryNode root() {
+        return new BinaryNode(this, mRoot);
+    }
+
+    public QSObject toQSObject() {
+        return (QSObject) root().toValue();
+    }
+
+    ByteBuffer getBuffer() {
+        return mBuffer;
+    }
+
+    boolean hasDictionary() {
+        return mKeys != null;
+    }
+
+    String key(int index) {
+        return mKeys[index];
+    }
+
+    /**
+     * key 不在字典中时返回 -1
+     */
+    int keyIndex(String key) {
+        Integer index = mKeyIndexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    static long readVarint(ByteBuffer buffer, int pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get(pos++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    static int skipVarint(ByteBuffer buffer, int pos) {
+        while (buffer.get(pos) < 0) {
+            pos++;
+        }
+        return pos + 1;
+    }
+
+    static String decode(ByteBuffer buffer, int pos, int length) {
+        if (pos + length > buffer.limit()) throw new IllegalArgumentException("malformed string");
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + pos, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(pos);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
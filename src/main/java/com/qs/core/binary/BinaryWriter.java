@@ -0,0 +1,200 @@
+package com.qs.core.binary;
+
+import com.qs.core.model.QSArray;
+import com.qs.core.model.QSObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 把 {@link QSObject} 写为紧凑的二进制格式（见 {@link BinaryFormat}），由 {@link BinaryReader} 读取。
+ * <p>
+ * 先遍历一次计算每个对象和数组的字节数，再一次写出，不产生中间缓冲。
+ * Integer/Long 以 zigzag varint 保存，其余非容器的值按 String.valueOf 保存为字符串。
+ * dictionary 为 true 时每个 key 只保存一次，适合大量重复 key 的数组对象。
+ */
+public final class BinaryWriter {
+
+    private static final char REPLACEMENT = '?';
+
+    private final boolean mDictionary;
+    private final Map<String, Integer> mKeys = new HashMap<>();
+    private String[] mKeyList = new String[16];
+    // 按先序记录每个对象和数组 body 的字节数
+    private int[] mSizes = new int[16];
+    private int mSizeCount;
+    private int mSizeIndex;
+    private byte[] mBytes;
+    private int mCount;
+
+    private BinaryWriter(boolean dictionary) {
+        this.mDictionary = dictionary;
+    }
+
+    public static byte[] toBytes(QSObject object) {
+        return toBytes(object, false);
+    }
+
+    public static byte[] toBytes(QSObject object, boolean dictionary) {
+        BinaryWriter writer = new BinaryWriter(dictionary);
+        writer.encode(object);
+        return writer.mBytes;
+    }
+
+    public static void write(QSObject object, boolean dictionary, OutputStream out) throws IOException {
+        BinaryWriter writer = new BinaryWriter(dictionary);
+        writer.encode(object);
+        out.write(writer.mBytes, 0, writer.mCount);
+    }
+
+    private void encode(QSObject object) {
+        int size = BinaryFormat.HEADER_SIZE + measure(object);
+        if (mDictionary) {
+            int count = mKeys.size();
+            size += BinaryFormat.varintSize(count);
+            for (int i = 0; i < count; i++) {
+                size += stringSize(mKeyList[i]);
+            }
+        }
+        mBytes = new byte[size];
+        mBytes[mCount++] = BinaryFormat.MAGIC[0];
+        mBytes[mCount++] = BinaryFormat.MAGIC[1];
+        mBytes[mCount++] = BinaryFormat.MAGIC[2];
+        mBytes[mCount++] = BinaryFormat.VERSION;
+        mBytes[mCount++] = (byte) (mDictionary ? BinaryFormat.FLAG_DICTIONARY : 0);
+        if (mDictionary) {
+            int count = mKeys.size();
+            writeVarint(count);
+            for (int i = 0; i < count; i++) {
+                writeString(mKeyList[i]);
+            }
+        }
+        write(object);
+    }
+
+    private int measure(Object value) {
+        if (value == null) return 1;
+        if (value instanceof Integer || value instanceof Long) {
+            return 1 + BinaryFormat.varintSize(BinaryFormat.zigzag(((Number) value).longValue()));
+        }
+        if (value instanceof QSObject) {
+            int slot = reserve();
+            QSObject object = (QSObject) value;
+            int body = 0;
+            for (Map.Entry<String, Object> entry : object.entrySet()) {
+                body += keySize(entry.getKey()) + measure(entry.getValue());
+            }
+            mSizes[slot] = body;
+            return 1 + BinaryFormat.varintSize(object.size()) + BinaryFormat.varintSize(body) + body;
+        }
+        if (value instanceof QSArray) {
+            int slot = reserve();
+            QSArray array = (QSArray) value;
+            int body = 0;
+            for (int i = 0, size = array.size(); i < size; i++) {
+                body += measure(array.get(i));
+            }
+            mSizes[slot] = body;
+            return 1 + BinaryFormat.varintSize(array.size()) + BinaryFormat.varintSize(body) + body;
+        }
+        return 1 + stringSize(String.valueOf(value));
+    }
+
+    private void write(Object value) {
+        if (value == null) {
+            mBytes[mCount++] = BinaryFormat.TYPE_NULL;
+        } else if (value instanceof Integer) {
+            mBytes[mCount++] = BinaryFormat.TYPE_INT;
+            writeVarint(BinaryFormat.zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            mBytes[mCount++] = BinaryFormat.TYPE_LONG;
+            writeVarint(BinaryFormat.zigzag((Long) value));
+        } else if (value instanceof QSObject) {
+            QSObject object = (QSObject) value;
+            mBytes[mCount++] = BinaryFormat.TYPE_OBJECT;
+            writeVarint(object.size());
+            writeVarint(mSizes[mSizeIndex++]);
+            for (Map.Entry<String, Object> entry : object.entrySet()) {
+                if (mDictionary) {
+                    writeVarint(mKeys.get(entry.getKey()));
+                } else {
+                    writeString(entry.getKey());
+                }
+                write(entry.getValue());
+            }
+        } else if (value instanceof QSArray) {
+            QSArray array = (QSArray) value;
+            mBytes[mCount++] = BinaryFormat.TYPE_ARRAY;
+            writeVarint(array.size());
+            writeVarint(mSizes[mSizeIndex++]);
+            for (int i = 0, size = array.size(); i < size; i++) {
+                write(array.get(i));
+            }
+        } else {
+            mBytes[mCount++] = BinaryFormat.TYPE_STRING;
+            writeString(String.valueOf(value));
+        }
+    }
+
+    private int reserve() {
+        if (mSizeCount == mSizes.length) {
+            mSizes = Arrays.copyOf(mSizes, mSizeCount * 2);
+        }
+        return mSizeCount++;
+    }
+
+    private int keySize(String key) {
+        if (!mDictionary) return stringSize(key);
+        Integer index = mKeys.get(key);
+        if (index == null) {
+            index = mKeys.size();
+            mKeys.put(key, index);
+            if (index == mKeyList.length) {
+                mKeyList = Arrays.copyOf(mKeyList, index * 2);
+            }
+            mKeyList[index] = key;
+        }
+        return BinaryFormat.varintSize(index);
+    }
+
+    private static int stringSize(String s) {
+        int length = BinaryFormat.utf8Length(s);
+        return BinaryFormat.varintSize(length) + length;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            mBytes[mCount++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mBytes[mCount++] = (byte) value;
+    }
+
+    private void writeString(String s) {
+        writeVarint(BinaryFormat.utf8Length(s));
+        for (int i = 0, length = s.length(); i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80) {
+                mBytes[mCount++] = (byte) ch;
+            } else if (ch < 0x800) {
+                mBytes[mCount++] = (byte) (0xC0 | (ch >> 6));
+                mBytes[mCount++] = (byte) (0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, s.charAt(++i));
+                mBytes[mCount++] = (byte) (0xF0 | (codePoint >> 18));
+                mBytes[mCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                mBytes[mCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                mBytes[mCount++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                mBytes[mCount++] = (byte) REPLACEMENT;
+            } else {
+                mBytes[mCount++] = (byte) (0xE0 | (ch >> 12));
+                mBytes[mCount++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                mBytes[mCount++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+    }
+}
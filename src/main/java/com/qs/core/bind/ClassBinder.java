@@ -0,0 +1,169 @@
+package com.qs.core.bind;
+
+import com.qs.core.parser.ParseException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个类的绑定信息，每个类只构建一次并缓存在 {@link ClassValue} 中，构建后只读，可跨线程共享。
+ * <p>
+ * 普通类通过无参构造函数创建，属性优先使用 public setter，否则直接写字段；
+ * record（运行在 Java 16+ 时）通过规范构造函数一次性创建。
+ */
+final class ClassBinder {
+
+    private static final ClassValue<ClassBinder> BINDERS = new ClassValue<ClassBinder>() {
+        @Override
+        protected ClassBinder computeValue(Class<?> type) {
+            return new ClassBinder(type);
+        }
+    };
+
+    // 通过反射访问 record 相关 API，保持 Java 8 下可编译
+    private static final Method IS_RECORD = findMethod(Class.class, "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+    private final Class<?> mType;
+    private final boolean mRecord;
+    private final MethodHandle mConstructor;
+    private final PropertyBinder[] mProperties;
+    private final Map<String, PropertyBinder> mPropertyMap;
+
+    private ClassBinder(Class<?> type) {
+        this.mType = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<PropertyBinder> properties = new ArrayList<>();
+        try {
+            if (isRecord(type)) {
+                mRecord = true;
+                Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    Object component = components[i];
+                    Method getName = component.getClass().getMethod("getName");
+                    Method getType = component.getClass().getMethod("getType");
+                    Method getGenericType = component.getClass().getMethod("getGenericType");
+                    parameterTypes[i] = (Class<?>) getType.invoke(component);
+                    String name = (String) getName.invoke(component);
+                    properties.add(PropertyBinder.create(name, i, (Type) getGenericType.invoke(component), null));
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+                mConstructor = lookup.unreflectConstructor(constructor)
+                        .asType(MethodType.genericMethodType(components.length))
+                        .asSpreader(Object[].class, components.length);
+            } else {
+                mRecord = false;
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                mConstructor = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+                for (Field field : fields(type)) {
+                    properties.add(PropertyBinder.create(field.getName(), properties.size(),
+                            field.getGenericType(), setter(lookup, type, field)));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("can't bind " + type.getName(), e);
+        }
+        mProperties = properties.toArray(new PropertyBinder[0]);
+        mPropertyMap = new HashMap<>(mProperties.length * 2);
+        for (PropertyBinder property : mProperties) {
+            if (property != null) mPropertyMap.put(property.mName, property);
+        }
+    }
+
+    /**
+     * 类型无法绑定（如没有可用的构造方法）时抛出 {@link ParseException#ERROR_BIND_EXCEPTION}，position 为引用该类型的 key 的位置
+     */
+    static ClassBinder of(Class<?> type, int position) throws ParseException {
+        try {
+            return BINDERS.get(type);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(position, ParseException.ERROR_BIND_EXCEPTION, e.getMessage());
+        }
+    }
+
+    int size() {
+        return mProperties.length;
+    }
+
+    PropertyBinder property(String name) {
+        return mPropertyMap.get(name);
+    }
+
+    Object newInstance(Object[] slots, int[] positions) throws Throwable {
+        if (mRecord) {
+            Object[] args = new Object[mProperties.length];
+            for (int i = 0; i < args.length; i++) {
+                PropertyBinder property = mProperties[i];
+                Object value = property == null || slots[i] == null ? null : property.toValue(slots[i], positions[i]);
+                args[i] = value != null || property == null ? value : property.defaultValue();
+            }
+            return (Object) mConstructor.invokeExact(args);
+        }
+        Object instance = (Object) mConstructor.invokeExact();
+        for (int i = 0; i < mProperties.length; i++) {
+            if (slots[i] != null) mProperties[i].set(instance, slots[i], positions[i]);
+        }
+        return instance;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassBinder{" + mType.getName() + "}";
+    }
+
+    private static List<Field> fields(Class<?> type) {
+        LinkedList<Class<?>> hierarchy = new LinkedList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.addFirst(c);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                        || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> type, Field field) throws IllegalAccessException {
+        String name = field.getName();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            return lookup.unreflect(type.getMethod(setterName, field.getType()));
+        } catch (NoSuchMethodException e) {
+            field.setAccessible(true);
+            return lookup.unreflectSetter(field);
+        }
+    }
+
+    private static boolean isRecord(Class<?> type) throws ReflectiveOperationException {
+        return IS_RECORD != null && (Boolean) IS_RECORD.invoke(type);
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
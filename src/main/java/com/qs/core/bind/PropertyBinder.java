@@ -0,0 +1,299 @@
+package com.qs.core.bind;
+
+import com.qs.core.parser.ParseException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 单个属性的绑定信息，类型分析与 setter 的 {@link MethodHandle} 只在构建 {@link ClassBinder} 时生成一次。
+ * <p>
+ * 基本类型属性通过精确类型的 setter 直接写入，不经过装箱。
+ */
+final class PropertyBinder {
+
+    static final int KIND_SCALAR = 0;
+    static final int KIND_OBJECT = 1;
+    static final int KIND_LIST = 2;
+
+    private static final int CONTAINER_LIST = 0;
+    private static final int CONTAINER_SET = 1;
+    private static final int CONTAINER_ARRAY = 2;
+
+    final String mName;
+    final int mIndex;
+    final int mKind;
+
+    private final Class<?> mType;
+    // KIND_SCALAR 时为属性类型，KIND_LIST 时为元素类型，元素为对象时为 null
+    private final ScalarType mScalarType;
+    private final Class<?> mElementType;
+    private final int mContainer;
+    // record 属性没有 setter，由构造函数一次性传入
+    private final MethodHandle mSetter;
+    private final Object mDefaultValue;
+
+    private PropertyBinder(String name, int index, int kind, Class<?> type, ScalarType scalarType,
+                           Class<?> elementType, int container, MethodHandle setter) {
+        this.mName = name;
+        this.mIndex = index;
+        this.mKind = kind;
+        this.mType = type;
+        this.mScalarType = scalarType;
+        this.mElementType = elementType;
+        this.mContainer = container;
+        this.mSetter = setter == null ? null : setter.asType(setterType(type));
+        this.mDefaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    /**
+     * 不支持的属性类型（如 Map、接口）返回 null
+     */
+    static PropertyBinder create(String name, int index, Type genericType, MethodHandle setter) {
+        Class<?> type = rawClass(genericType);
+        if (type == null) return null;
+        ScalarType scalarType = ScalarType.of(type);
+        if (scalarType != null) {
+            return new PropertyBinder(name, index, KIND_SCALAR, type, scalarType, null, CONTAINER_LIST, setter);
+        }
+        Type elementGenericType;
+        int container;
+        if (type.isArray()) {
+            elementGenericType = genericType instanceof GenericArrayType
+                    ? ((GenericArrayType) genericType).getGenericComponentType() : type.getComponentType();
+            container = CONTAINER_ARRAY;
+        } else if (type == List.class || type == Collection.class || type == Iterable.class || type == ArrayList.class) {
+            elementGenericType = typeArgument(genericType);
+            container = CONTAINER_LIST;
+        } else if (type == Set.class || type == LinkedHashSet.class) {
+            elementGenericType = typeArgument(genericType);
+            container = CONTAINER_SET;
+        } else if (isBean(type)) {
+            return new PropertyBinder(name, index, KIND_OBJECT, type, null, null, CONTAINER_LIST, setter);
+        } else {
+            return null;
+        }
+        Class<?> elementType = rawClass(elementGenericType);
+        if (elementType == null) return null;
+        ScalarType elementScalarType = ScalarType.of(elementType);
+        if (elementScalarType == null && !isBean(elementType)) return null;
+        return new PropertyBinder(name, index, KIND_LIST, type, elementScalarType, elementType, container, setter);
+    }
+
+    boolean isObjectElement() {
+        return mScalarType == null;
+    }
+
+    ClassBinder objectBinder(int position) throws ParseException {
+        return ClassBinder.of(mKind == KIND_OBJECT ? mType : mElementType, position);
+    }
+
+    Object defaultValue() {
+        return mDefaultValue;
+    }
+
+    /**
+     * position 为标量 key 的位置，集合元素的位置由 {@link QSBinder.ListNode} 记录
+     */
+    void set(Object target, Object slot, int position) throws Throwable {
+        if (mType.isPrimitive()) {
+            setPrimitive(target, (String) slot, position);
+        } else {
+            Object value = toValue(slot, position);
+            if (value != null) mSetter.invokeExact(target, value);
+        }
+    }
+
+    /**
+     * 将暂存的原始值转换为属性值（装箱），值不存在时返回 null
+     */
+    Object toValue(Object slot, int position) throws Throwable {
+        switch (mKind) {
+            case KIND_SCALAR:
+                return convert(mScalarType, mType, (String) slot, position);
+            case KIND_OBJECT:
+                return ((QSBinder.ObjectNode) slot).finish();
+            default:
+                return toContainer((QSBinder.ListNode) slot);
+        }
+    }
+
+    private void setPrimitive(Object target, String raw, int position) throws Throwable {
+        if (raw == null || raw.isEmpty()) return;
+        try {
+            switch (mScalarType) {
+                case INT:
+                    mSetter.invokeExact(target, Integer.parseInt(raw));
+                    break;
+                case LONG:
+                    mSetter.invokeExact(target, Long.parseLong(raw));
+                    break;
+                case SHORT:
+                    mSetter.invokeExact(target, Short.parseShort(raw));
+                    break;
+                case BYTE:
+                    mSetter.invokeExact(target, Byte.parseByte(raw));
+                    break;
+                case DOUBLE:
+                    mSetter.invokeExact(target, Double.parseDouble(raw));
+                    break;
+                case FLOAT:
+                    mSetter.invokeExact(target, Float.parseFloat(raw));
+                    break;
+                case BOOLEAN:
+                    mSetter.invokeExact(target, ScalarType.parseBoolean(raw));
+                    break;
+                case CHAR:
+                    mSetter.invokeExact(target, ScalarType.parseChar(raw));
+                    break;
+                default:
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(position, ParseException.ERROR_BIND_EXCEPTION, mName + "=" + raw);
+        }
+    }
+
+    private Object convert(ScalarType scalarType, Class<?> type, String raw, int position) throws ParseException {
+        try {
+            return scalarType.convert(raw, type);
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(position, ParseException.ERROR_BIND_EXCEPTION, mName + "=" + raw);
+        }
+    }
+
+    private Object toContainer(QSBinder.ListNode list) throws Throwable {
+        if (mContainer == CONTAINER_ARRAY) {
+            if (mElementType.isPrimitive()) return toPrimitiveArray(list);
+            List<Object> values = toValues(list);
+            Object array = Array.newInstance(mElementType, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(array, i, values.get(i));
+            }
+            return array;
+        }
+        List<Object> values = toValues(list);
+        if (mContainer == CONTAINER_SET) return new LinkedHashSet<>(values);
+        return values;
+    }
+
+    private List<Object> toValues(QSBinder.ListNode list) throws Throwable {
+        List<Object> items = list.mItems;
+        List<Object> values = new ArrayList<>(items.size());
+        for (int i = 0, size = items.size(); i < size; i++) {
+            Object item = items.get(i);
+            if (item == null) continue;
+            Object value;
+            if (item instanceof QSBinder.ObjectNode) {
+                value = ((QSBinder.ObjectNode) item).finish();
+            } else {
+                value = convert(mScalarType, mElementType, (String) item, list.mPositions[i]);
+            }
+            if (value != null) values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * 基本类型数组直接由原始字符串转换，不经过装箱
+     */
+    private Object toPrimitiveArray(QSBinder.ListNode list) throws ParseException {
+        List<Object> items = list.mItems;
+        int count = 0;
+        String[] raws = new String[items.size()];
+        int[] positions = new int[items.size()];
+        for (int i = 0, size = items.size(); i < size; i++) {
+            String raw = (String) items.get(i);
+            if (raw != null && !raw.isEmpty()) {
+                positions[count] = list.mPositions[i];
+                raws[count++] = raw;
+            }
+        }
+        int i = 0;
+        try {
+            switch (mScalarType) {
+                case INT: {
+                    int[] array = new int[count];
+                    for (; i < count; i++) array[i] = Integer.parseInt(raws[i]);
+                    return array;
+                }
+                case LONG: {
+                    long[] array = new long[count];
+                    for (; i < count; i++) array[i] = Long.parseLong(raws[i]);
+                    return array;
+                }
+                case SHORT: {
+                    short[] array = new short[count];
+                    for (; i < count; i++) array[i] = Short.parseShort(raws[i]);
+                    return array;
+                }
+                case BYTE: {
+                    byte[] array = new byte[count];
+                    for (; i < count; i++) array[i] = Byte.parseByte(raws[i]);
+                    return array;
+                }
+                case DOUBLE: {
+                    double[] array = new double[count];
+                    for (; i < count; i++) array[i] = Double.parseDouble(raws[i]);
+                    return array;
+                }
+                case FLOAT: {
+                    float[] array = new float[count];
+                    for (; i < count; i++) array[i] = Float.parseFloat(raws[i]);
+                    return array;
+                }
+                case BOOLEAN: {
+                    boolean[] array = new boolean[count];
+                    for (; i < count; i++) array[i] = ScalarType.parseBoolean(raws[i]);
+                    return array;
+                }
+                default: {
+                    char[] array = new char[count];
+                    for (; i < count; i++) array[i] = ScalarType.parseChar(raws[i]);
+                    return array;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(positions[i], ParseException.ERROR_BIND_EXCEPTION, mName + "=" + raws[i]);
+        }
+    }
+
+    private static MethodType setterType(Class<?> type) {
+        return MethodType.methodType(void.class, Object.class, type.isPrimitive() ? type : Object.class);
+    }
+
+    static boolean isBean(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface()
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.");
+    }
+
+    private static Type typeArgument(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            return ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        }
+        return String.class;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) return (Class<?>) type;
+        if (type instanceof ParameterizedType) return rawClass(((ParameterizedType) type).getRawType());
+        if (type instanceof WildcardType) return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+            return component == null ? null : Array.newInstance(component, 0).getClass();
+        }
+        return null;
+    }
+}
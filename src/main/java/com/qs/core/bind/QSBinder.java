@@ -0,0 +1,201 @@
+package com.qs.core.bind;
+
+import com.qs.core.model.ParseOptions;
+import com.qs.core.parser.ParseException;
+import com.qs.core.parser.PathParser;
+import com.qs.core.parser.QSIndex;
+import com.qs.core.util.NumberUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 将 query string 直接绑定到普通类或 record，不构建中间的 {@link com.qs.core.model.QSObject}。
+ * <p>
+ * path 规则与解析一致：'page[size]' 绑定到 page 属性的 size 属性，'filter[ids][]' 追加到 filter 的 ids 集合，
+ * 'items[0][name]' 绑定到 items 第 0 个元素的 name 属性。未知属性会被忽略。
+ */
+public final class QSBinder {
+
+    private static final String CHAR_DOT = ".";
+    private static final String REGEX_FIRST_DOT = "^\\.+";
+    private static final String REGEX_DOT = "\\.+";
+    private static final String CHAR_COMMA = ",";
+    private static final String EMPTY_STRING = "";
+
+    private QSBinder() {
+    }
+
+    public static <T> T bind(String s, Class<T> type) throws ParseException {
+        return bind(s, type, new ParseOptions.Builder().build());
+    }
+
+    /**
+     * 不合法的转义与 {@link com.qs.core.QS#parse(String, ParseOptions)} 一样抛出 IllegalArgumentException；
+     * 无法转换的值和类型抛出 {@link ParseException#ERROR_BIND_EXCEPTION}，位置为对应 key 在 s 中的位置
+     */
+    public static <T> T bind(String s, Class<T> type, ParseOptions options) throws ParseException {
+        ObjectNode root = new ObjectNode(ClassBinder.of(type, -1));
+        QSIndex index = new QSIndex().index(s, options);
+        for (int i = 0, size = index.size(); i < size; i++) {
+            int position = index.keyStart(i);
+            List<String> path = path(index.key(i), position, options);
+            String value = index.value(i);
+            if (value == null && !options.isStrictNullHandling()) value = EMPTY_STRING;
+            root.bind(path, 0, value, position, options);
+        }
+        try {
+            return type.cast(root.finish());
+        } catch (ParseException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ParseException(ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    private static List<String> path(String key, int position, ParseOptions options) throws ParseException {
+        List<String> pathArray = PathParser.parse(key, position);
+        if (!options.isAllowDots()) return limitDepth(pathArray, options.getDepth());
+        List<String> path = new ArrayList<>(pathArray.size() + 2);
+        for (String segment : pathArray) {
+            if (segment.length() > 1 && segment.contains(CHAR_DOT)) {
+                for (String dotSegment : segment.replaceAll(REGEX_FIRST_DOT, "").split(REGEX_DOT)) {
+                    path.add(dotSegment);
+                }
+            } else {
+                path.add(segment);
+            }
+        }
+        return limitDepth(path, options.getDepth());
+    }
+
+    /**
+     * 与解析一致，超出 depth 的部分合并为一个字面 key，如 depth 为 1 时 'a[b][c][d]' 为 a、b、'[c][d]'
+     */
+    private static List<String> limitDepth(List<String> path, int depth) {
+        int size = path.size();
+        if (size - 1 <= depth) return path;
+        StringBuilder mergePath = new StringBuilder();
+        for (int i = depth + 1; i < size; i++) {
+            mergePath.append("[").append(path.get(i)).append("]");
+        }
+        List<String> limited = new ArrayList<>(path.subList(0, depth + 1));
+        limited.add(mergePath.toString());
+        return limited;
+    }
+
+    /**
+     * 对象属性的暂存值：标量为原始字符串，嵌套对象为 {@link ObjectNode}，集合为 {@link ListNode}；
+     * 标量同时记录 key 的位置，转换失败时报告
+     */
+    static final class ObjectNode {
+        private final ClassBinder mBinder;
+        private final Object[] mSlots;
+        private final int[] mPositions;
+
+        ObjectNode(ClassBinder binder) {
+            this.mBinder = binder;
+            this.mSlots = new Object[binder.size()];
+            this.mPositions = new int[binder.size()];
+        }
+
+        void bind(List<String> path, int i, String value, int position, ParseOptions options) throws ParseException {
+            PropertyBinder property = mBinder.property(path.get(i));
+            if (property == null) return;
+            boolean last = i == path.size() - 1;
+            Object slot = mSlots[property.mIndex];
+            switch (property.mKind) {
+                case PropertyBinder.KIND_SCALAR: {
+                    if (last) {
+                        mSlots[property.mIndex] = value;
+                        mPositions[property.mIndex] = position;
+                    }
+                    break;
+                }
+                case PropertyBinder.KIND_OBJECT: {
+                    if (last) break;
+                    ObjectNode child = slot == null ? new ObjectNode(property.objectBinder(position)) : (ObjectNode) slot;
+                    mSlots[property.mIndex] = child;
+                    child.bind(path, i + 1, value, position, options);
+                    break;
+                }
+                default: {
+                    ListNode list = slot == null ? new ListNode() : (ListNode) slot;
+                    mSlots[property.mIndex] = list;
+                    list.bind(property, path, i + 1, value, position, options);
+                    break;
+                }
+            }
+        }
+
+        Object finish() throws Throwable {
+            return mBinder.newInstance(mSlots, mPositions);
+        }
+    }
+
+    /**
+     * 集合属性的暂存值，元素为原始字符串或 {@link ObjectNode}，mPositions 为每个元素 key 的位置。
+     * 与解析一致，下标只能指向已有元素或追加，跳过下标抛出 {@link ParseException#ERROR_SKIP_ADD_EXCEPTION}
+     */
+    static final class ListNode {
+        final List<Object> mItems = new ArrayList<>(4);
+        int[] mPositions = new int[4];
+
+        void bind(PropertyBinder property, List<String> path, int i, String value, int position, ParseOptions options) throws ParseException {
+            if (i == path.size()) { // 'ids=1&ids=2' 或 'ids=1,2'
+                if (!property.isObjectElement()) addValue(value, position, options);
+                return;
+            }
+            String segment = path.get(i);
+            boolean last = i == path.size() - 1;
+            int index;
+            if (segment.isEmpty()) {
+                index = mItems.size();
+            } else if (NumberUtil.isNaturalNumber(segment)) {
+                index = Integer.parseInt(segment);
+            } else {
+                return;
+            }
+            if (index > mItems.size()) {
+                throw new ParseException(position, ParseException.ERROR_SKIP_ADD_EXCEPTION, path);
+            }
+            if (!property.isObjectElement()) {
+                if (!last) return;
+                if (index == mItems.size()) {
+                    addValue(value, position, options);
+                } else {
+                    mItems.set(index, value);
+                    mPositions[index] = position;
+                }
+                return;
+            }
+            if (last) return;
+            ObjectNode element;
+            if (index == mItems.size()) {
+                element = new ObjectNode(property.objectBinder(position));
+                add(element, position);
+            } else {
+                element = (ObjectNode) mItems.get(index);
+            }
+            element.bind(path, i + 1, value, position, options);
+        }
+
+        private void addValue(String value, int position, ParseOptions options) {
+            if (options.isComma() && value != null && value.contains(CHAR_COMMA)) {
+                for (String item : value.split(CHAR_COMMA, -1)) {
+                    add(item, position);
+                }
+            } else {
+                add(value, position);
+            }
+        }
+
+        private void add(Object item, int position) {
+            int size = mItems.size();
+            if (size == mPositions.length) mPositions = Arrays.copyOf(mPositions, size * 2);
+            mPositions[size] = position;
+            mItems.add(item);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.qs.core.bind;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 可直接由单个字符串 value 转换得到的属性类型
+ */
+enum ScalarType {
+    STRING, INT, LONG, SHORT, BYTE, DOUBLE, FLOAT, BOOLEAN, CHAR, ENUM, BIG_DECIMAL, BIG_INTEGER;
+
+    /**
+     * 非标量类型返回 null
+     */
+    static ScalarType of(Class<?> type) {
+        if (type == String.class || type == CharSequence.class || type == Object.class) return STRING;
+        if (type == int.class || type == Integer.class) return INT;
+        if (type == long.class || type == Long.class) return LONG;
+        if (type == short.class || type == Short.class) return SHORT;
+        if (type == byte.class || type == Byte.class) return BYTE;
+        if (type == double.class || type == Double.class) return DOUBLE;
+        if (type == float.class || type == Float.class) return FLOAT;
+        if (type == boolean.class || type == Boolean.class) return BOOLEAN;
+        if (type == char.class || type == Character.class) return CHAR;
+        if (type.isEnum()) return ENUM;
+        if (type == BigDecimal.class) return BIG_DECIMAL;
+        if (type == BigInteger.class) return BIG_INTEGER;
+        return null;
+    }
+
+    /**
+     * 转换为装箱后的值，非字符串类型的空值视为不存在，返回 null
+     */
+    Object convert(String raw, Class<?> type) {
+        if (raw == null) return null;
+        if (this == STRING) return raw;
+        if (raw.isEmpty()) return null;
+        switch (this) {
+            case INT:
+                return Integer.valueOf(raw);
+            case LONG:
+                return Long.valueOf(raw);
+            case SHORT:
+                return Short.valueOf(raw);
+            case BYTE:
+                return Byte.valueOf(raw);
+            case DOUBLE:
+                return Double.valueOf(raw);
+            case FLOAT:
+                return Float.valueOf(raw);
+            case BOOLEAN:
+                return parseBoolean(raw);
+            case CHAR:
+                return parseChar(raw);
+            case ENUM:
+                return parseEnum(raw, type);
+            case BIG_DECIMAL:
+                return new BigDecimal(raw);
+            case BIG_INTEGER:
+                return new BigInteger(raw);
+            default:
+                return raw;
+        }
+    }
+
+    static boolean parseBoolean(String raw) {
+        if ("true".equalsIgnoreCase(raw) || "1".equals(raw) || "on".equalsIgnoreCase(raw)) return true;
+        if ("false".equalsIgnoreCase(raw) || "0".equals(raw) || "off".equalsIgnoreCase(raw)) return false;
+        throw new IllegalArgumentException(raw);
+    }
+
+    static char parseChar(String raw) {
+        if (raw.length() != 1) throw new IllegalArgumentException(raw);
+        return raw.charAt(0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parseEnum(String raw, Class<?> type) {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) type, raw);
+        } catch (IllegalArgumentException e) {
+            for (Object constant : type.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equalsIgnoreCase(raw)) return constant;
+            }
+            throw e;
+        }
+    }
+}
@@ -4,124 +4,119 @@ import com.qs.core.model.QSArray;
 import com.qs.core.model.QSObject;
 import com.qs.core.model.ColorString;
 
+import java.io.IOException;
 import java.util.Map;
 
+/**
+ * 缩进层级作为参数逐层传递，不保存任何状态，可在多线程中同时使用
+ */
 public class QSFormatter {
 
-    private static int mLevel = 0;
-    private static final String UNIT_TAB_SPACE = "\t";
-    private static final String UNIT_SPACE = " ";
+    private static final char UNIT_TAB_SPACE = '\t';
+    private static final char LINE_FEED = '\n';
+    private static final char SEPARATOR = ',';
+    private static final char COLON = ':';
+    private static final char QUOTE = '"';
+    private static final String NULL = "null";
 
     public static String format(QSObject input) {
-        StringBuilder builder = new StringBuilder(input.size() * 4);
-        formatObject("", true, input, builder);
+        return format(input, true);
+    }
+
+    /**
+     * colors 为 false 时不输出 ANSI 颜色控制符，适合写入日志文件
+     */
+    public static String format(QSObject input, boolean colors) {
+        StringBuilder builder = new StringBuilder(input.size() * 16);
+        try {
+            format(input, builder, colors);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
         return builder.toString();
     }
 
-    private static <K, V> void formatObject(String inputKey, boolean parentLast, QSObject input, StringBuilder builder) {
-        printKey(builder, inputKey);
-        printBlockStartSign(builder, "{");
+    public static void format(QSObject input, Appendable out, boolean colors) throws IOException {
+        formatObject(out, colors, 0, "", true, input);
+    }
+
+    private static void formatObject(Appendable out, boolean colors, int level, String inputKey, boolean parentLast, QSObject input) throws IOException {
+        printKey(out, level, inputKey);
+        printBlockStartSign(out, '{');
         int i = 0;
         int length = input.size();
-        for (Map.Entry entity : input.entrySet()) {
+        for (Map.Entry<String, Object> entity : input.entrySet()) {
             boolean last = i == length - 1;
-            String key = entity.getKey().toString();
+            String key = entity.getKey();
             Object value = entity.getValue();
             if (value instanceof QSObject) {
-                mLevel++;
-                formatObject(key, last, (QSObject) value, builder);
-                mLevel--;
+                formatObject(out, colors, level + 1, key, last, (QSObject) value);
             } else if (value instanceof QSArray) {
-                mLevel++;
-                formatArray(key, last, (QSArray) value, builder);
-                mLevel--;
+                formatArray(out, colors, level + 1, key, last, (QSArray) value);
             } else {
-                mLevel++;
-                printKey(builder, key);
-                printValue(builder, value, last);
-                mLevel--;
+                printKey(out, level + 1, key);
+                printValue(out, colors, value, last);
             }
             i++;
         }
-        printBlockEndSign(builder, parentLast, "}");
+        printBlockEndSign(out, level, parentLast, '}');
     }
 
-    private static <T> void formatArray(String inputKey, boolean parentLast, QSArray input, StringBuilder builder) {
-        printKey(builder, inputKey);
-        printBlockStartSign(builder, "[");
-        int i = 0;
+    private static void formatArray(Appendable out, boolean colors, int level, String inputKey, boolean parentLast, QSArray input) throws IOException {
+        printKey(out, level, inputKey);
+        printBlockStartSign(out, '[');
         int length = input.size();
-        for (Object value : input) {
+        for (int i = 0; i < length; i++) {
             boolean last = i == length - 1;
+            Object value = input.get(i);
             if (value instanceof QSObject) {
-                mLevel++;
-                formatObject("", last, (QSObject) value, builder);
-                mLevel--;
+                formatObject(out, colors, level + 1, "", last, (QSObject) value);
             } else if (value instanceof QSArray) {
-                mLevel++;
-                formatArray("", last, (QSArray) value, builder);
-                mLevel--;
+                formatArray(out, colors, level + 1, "", last, (QSArray) value);
             } else {
-                mLevel++;
-                tabIndent(builder);
-                printValue(builder, value, last);
-                mLevel--;
+                tabIndent(out, level + 1);
+                printValue(out, colors, value, last);
             }
-            i++;
         }
-        printBlockEndSign(builder, parentLast, "]");
+        printBlockEndSign(out, level, parentLast, ']');
     }
 
-    private static void printKey(StringBuilder builder, String key) {
-        tabIndent(builder);
-        builder.append(colorKey(key));
-        if (!"".equals(key)) {
-            builder.append(":");
+    private static void printKey(Appendable out, int level, String key) throws IOException {
+        tabIndent(out, level);
+        if (!key.isEmpty()) {
+            out.append(key).append(COLON);
         }
     }
 
-    private static void printValue(StringBuilder builder, Object value, boolean last) {
+    private static void printValue(Appendable out, boolean colors, Object value, boolean last) throws IOException {
+        if (colors) out.append(ColorString.BLUE.getCode());
         if (value == null) {
-            builder.append(colorValue("null"));
+            out.append(NULL);
         } else {
-            builder.append(colorValue("\"" + value + "\""));
+            out.append(QUOTE).append(String.valueOf(value)).append(QUOTE);
         }
+        if (colors) out.append(ColorString.BLACK.getCode());
         if (!last) {
-            builder.append(",");
-            builder.append("\n");
+            out.append(SEPARATOR).append(LINE_FEED);
         }
     }
 
-    private static void printBlockStartSign(StringBuilder builder, String startSign) {
-        builder.append(startSign).append("\n");
+    private static void printBlockStartSign(Appendable out, char startSign) throws IOException {
+        out.append(startSign).append(LINE_FEED);
     }
 
-    private static void printBlockEndSign(StringBuilder builder, boolean last, String endSign) {
-        builder.append("\n");
-        tabIndent(builder);
-        builder.append(endSign);
+    private static void printBlockEndSign(Appendable out, int level, boolean last, char endSign) throws IOException {
+        out.append(LINE_FEED);
+        tabIndent(out, level);
+        out.append(endSign);
         if (!last) {
-            builder.append(",");
-            builder.append("\n");
+            out.append(SEPARATOR).append(LINE_FEED);
         }
     }
 
-    private static void tabIndent(StringBuilder builder) {
-        for (int i = 0; i < mLevel; i++) {
-            builder.append(UNIT_TAB_SPACE);
+    private static void tabIndent(Appendable out, int level) throws IOException {
+        for (int i = 0; i < level; i++) {
+            out.append(UNIT_TAB_SPACE);
         }
     }
-
-    private static void spaceIndent(StringBuilder builder) {
-        builder.append(UNIT_SPACE);
-    }
-
-    private static String colorKey(String key) {
-        return key;
-        // return ColorString.GREEN.getCode() + key + ColorString.BLACK.getCode();
-    }
-
-    private static String colorValue(String value) {
-        return ColorString.BLUE.getCode() + value + ColorString.BLACK.getCode();
-    }
 }
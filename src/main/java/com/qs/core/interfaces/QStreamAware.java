@@ -3,10 +3,38 @@ package com.qs.core.interfaces;
 import com.qs.core.model.StringifyOptions;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 
 public interface QStreamAware {
     void writeQString(Writer out) throws IOException;
 
     void writeQString(Writer out, StringifyOptions options) throws IOException;
+
+    default void writeQString(OutputStream out) throws IOException {
+        writeQString(out, new StringifyOptions.Builder().build());
+    }
+
+    /**
+     * 默认经由 {@link #writeQString(Writer, StringifyOptions)} 按 UTF-8 写出，不关闭 out
+     */
+    default void writeQString(OutputStream out, StringifyOptions options) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeQString(writer, options);
+        writer.flush();
+    }
+
+    default void writeQString(WritableByteChannel out) throws IOException {
+        writeQString(out, new StringifyOptions.Builder().build());
+    }
+
+    default void writeQString(WritableByteChannel out, StringifyOptions options) throws IOException {
+        Writer writer = Channels.newWriter(out, StandardCharsets.UTF_8.newEncoder(), -1);
+        writeQString(writer, options);
+        writer.flush();
+    }
 }
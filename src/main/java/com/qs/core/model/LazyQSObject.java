@@ -0,0 +1,192 @@
+package com.qs.core.model;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 延迟解析模式（{@link ParseOptions#isLazy()}）下的 {@link QSObject}。
+ * <p>
+ * value 以 {@link LazyValue} 的形式保存，{@link #get(Object)} 首次读取时解码并缓存；
+ * 遍历、比较、序列化等整体操作会先一次性解码全部 value。
+ */
+public class LazyQSObject extends QSObject {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean mResolved = false;
+
+    public LazyQSObject() {
+        super();
+    }
+
+    /**
+     * 读取 value 但不解码，供解析过程构建结构使用
+     */
+    public Object peek(Object key) {
+        return super.get(key);
+    }
+
+    /**
+     * 冻结前解码全部 value，之后读取不再修改内部状态
+     */
+    @Override
+    public QSObject freeze() {
+        resolveAll();
+        return super.freeze();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        mResolved = false;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = super.get(key);
+        if (mResolved) return value;
+        return resolveEntry(key, value);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = get(key);
+        if (value == null && !containsKey(key)) return defaultValue;
+        return value;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        resolveAll();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        resolveAll();
+        return super.entrySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        resolveAll();
+        return super.values();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        resolveAll();
+        super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        resolveAll();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return resolve(super.put(key, value));
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return resolve(super.remove(key));
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        return resolve(super.replace(key, value));
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        resolveAll();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        resolveAll();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        get(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        get(key);
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        get(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        get(key);
+        return super.merge(key, value, remappingFunction);
+    }
+
+    /**
+     * 序列化前解码全部 value，{@link LazyValue} 不会写入输出
+     */
+    private Object writeReplace() {
+        resolveAll();
+        return this;
+    }
+
+    private Object resolveEntry(Object key, Object value) {
+        if (value instanceof LazyValue) {
+            String decodeValue = ((LazyValue) value).decode();
+            super.put((String) key, decodeValue);
+            return decodeValue;
+        }
+        if (value instanceof QSArray) {
+            resolveArray((QSArray) value);
+        }
+        return value;
+    }
+
+    private void resolveAll() {
+        if (mResolved) return;
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof LazyValue) {
+                entry.setValue(((LazyValue) value).decode());
+            } else if (value instanceof QSArray) {
+                resolveArray((QSArray) value);
+            }
+        }
+        mResolved = true;
+    }
+
+    private static Object resolve(Object value) {
+        if (value instanceof LazyValue) return ((LazyValue) value).decode();
+        if (value instanceof QSArray) resolveArray((QSArray) value);
+        return value;
+    }
+
+    private static void resolveArray(QSArray array) {
+        for (int i = 0, size = array.size(); i < size; ++i) {
+            Object value = array.get(i);
+            if (value instanceof LazyValue) {
+                array.set(i, ((LazyValue) value).decode());
+            } else if (value instanceof QSArray) {
+                resolveArray((QSArray) value);
+            }
+        }
+    }
+}
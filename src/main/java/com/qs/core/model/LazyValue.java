@@ -0,0 +1,40 @@
+package com.qs.core.model;
+
+import com.qs.core.util.QSDecoder;
+
+/**
+ * 延迟解析模式下 value 的占位：仅记录 value 在原始输入中的区间，解码推迟到首次读取
+ */
+public final class LazyValue {
+
+    private final String mSource;
+    private final int mStart;
+    private final int mEnd;
+
+    public LazyValue(String source, int start, int end) {
+        this.mSource = source;
+        this.mStart = start;
+        this.mEnd = end;
+    }
+
+    public String getSource() {
+        return mSource;
+    }
+
+    public int getStart() {
+        return mStart;
+    }
+
+    public int getEnd() {
+        return mEnd;
+    }
+
+    public String decode() {
+        return QSDecoder.decode(mSource, mStart, mEnd);
+    }
+
+    @Override
+    public String toString() {
+        return decode();
+    }
+}
@@ -0,0 +1,45 @@
+package com.qs.core.model;
+
+/**
+ * 解析时创建 {@link QSObject} 和 {@link QSArray} 的工厂，通过 {@link ParseOptions.Builder#setNodeFactory} 配置。
+ * <p>
+ * 可以返回子类或复用的节点（见 {@link QSArena}）。同一个 ParseOptions 可能在多个线程中同时使用，实现需要线程安全。
+ */
+public interface NodeFactory {
+
+    NodeFactory DEFAULT = new NodeFactory() {
+        @Override
+        public QSObject newObject() {
+            return new QSObject();
+        }
+
+        @Override
+        public QSArray newArray() {
+            return new QSArray();
+        }
+    };
+
+    /**
+     * 返回空的对象
+     */
+    QSObject newObject();
+
+    /**
+     * 返回空的数组
+     */
+    QSArray newArray();
+
+    /**
+     * 延迟解析模式（{@link ParseOptions#isLazy()}）下使用的对象，必须是 {@link LazyQSObject}
+     */
+    default LazyQSObject newLazyObject() {
+        return new LazyQSObject();
+    }
+
+    /**
+     * 解析结束后是否释放节点多余的容量；复用节点存储的工厂应返回 false
+     */
+    default boolean isTrimAfterParse() {
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package com.qs.core.model;
 
+import java.util.Objects;
+
 class Options {
 
     // 参数定界符
@@ -37,6 +39,20 @@ class Options {
         return charset;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Options options = (Options) o;
+        return allowDots == options.allowDots && strictNullHandling == options.strictNullHandling
+                && delimiter.equals(options.delimiter) && charset.equals(options.charset);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(delimiter, charset, allowDots, strictNullHandling);
+    }
+
     public static class Builder {
         private boolean allowDots = ALLOW_DOTS;
         private boolean strictNullHandling = STRICT_NULL_HANDLING;
@@ -1,5 +1,7 @@
 package com.qs.core.model;
 
+import java.util.Objects;
+
 public class ParseOptions extends Options {
 
     // 最大解析深度
@@ -15,6 +17,14 @@ public class ParseOptions extends Options {
     public static final boolean PARSE_ARRAYS = true;
     // 是否可解析出逗号分隔的数组元素
     public static final boolean COMMA = false;
+    // 是否延迟解码 value（首次 get 时才解码并缓存）
+    public static final boolean LAZY = false;
+    // 是否把全部为整数的数组保存为 int[]/long[]，元素以 Integer/Long 返回
+    public static final boolean TYPED_ARRAYS = false;
+    // 是否返回冻结（不可修改）的结果，经由同步的方式交给其他线程后可直接共享
+    public static final boolean FREEZE = false;
+    // 创建对象和数组的工厂
+    public static final NodeFactory NODE_FACTORY = NodeFactory.DEFAULT;
 
     private int depth;
     private int parameterLimit;
@@ -22,10 +32,15 @@ public class ParseOptions extends Options {
     private int arrayLimit;
     private boolean parseArrays;
     private boolean comma;
+    private boolean lazy;
+    private boolean typedArrays;
+    private boolean freeze;
+    private NodeFactory nodeFactory;
 
     private ParseOptions(boolean allowDots, boolean strictNullHandling,
                          int depth, int parameterLimit, boolean ignoreQueryPrefix, int arrayLimit,
-                         boolean parseArrays, boolean comma) {
+                         boolean parseArrays, boolean comma, boolean lazy, boolean typedArrays, boolean freeze,
+                         NodeFactory nodeFactory) {
         super(allowDots, strictNullHandling);
         this.depth = depth;
         this.parameterLimit = parameterLimit;
@@ -33,6 +48,10 @@ public class ParseOptions extends Options {
         this.arrayLimit = arrayLimit;
         this.parseArrays = parseArrays;
         this.comma = comma;
+        this.lazy = lazy;
+        this.typedArrays = typedArrays;
+        this.freeze = freeze;
+        this.nodeFactory = nodeFactory;
     }
 
     public int getDepth() {
@@ -59,6 +78,42 @@ public class ParseOptions extends Options {
         return comma;
     }
 
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public boolean isTypedArrays() {
+        return typedArrays;
+    }
+
+    public boolean isFreeze() {
+        return freeze;
+    }
+
+    public NodeFactory getNodeFactory() {
+        return nodeFactory;
+    }
+
+    /**
+     * 选项相同的 ParseOptions 相等，可作为缓存的 key
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+        ParseOptions options = (ParseOptions) o;
+        return depth == options.depth && parameterLimit == options.parameterLimit
+                && ignoreQueryPrefix == options.ignoreQueryPrefix && arrayLimit == options.arrayLimit
+                && parseArrays == options.parseArrays && comma == options.comma && lazy == options.lazy
+                && typedArrays == options.typedArrays && freeze == options.freeze
+                && nodeFactory == options.nodeFactory;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), depth, parameterLimit, ignoreQueryPrefix, arrayLimit,
+                parseArrays, comma, lazy, typedArrays, freeze, System.identityHashCode(nodeFactory));
+    }
+
     public static class Builder extends Options.Builder {
         private int depth = DEPTH;
         private int parameterLimit = PARAMETER_LIMIT;
@@ -66,6 +121,10 @@ public class ParseOptions extends Options {
         private int arrayLimit = ARRAY_LIMIT;
         private boolean parseArrays = PARSE_ARRAYS;
         private boolean comma = COMMA;
+        private boolean lazy = LAZY;
+        private boolean typedArrays = TYPED_ARRAYS;
+        private boolean freeze = FREEZE;
+        private NodeFactory nodeFactory = NODE_FACTORY;
 
         public Builder setDepth(int depth) {
             this.depth = depth;
@@ -92,6 +151,29 @@ public class ParseOptions extends Options {
             return this;
         }
 
+        public Builder setLazy(boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * 整数数组的元素以 Integer/Long 返回而不是 String，toJsonString 随之由 ["1","2"] 变为 [1,2]；toQString 的结果不变
+         */
+        public Builder setTypedArrays(boolean typedArrays) {
+            this.typedArrays = typedArrays;
+            return this;
+        }
+
+        public Builder setFreeze(boolean freeze) {
+            this.freeze = freeze;
+            return this;
+        }
+
+        public Builder setNodeFactory(NodeFactory nodeFactory) {
+            this.nodeFactory = nodeFactory;
+            return this;
+        }
+
         public Builder setAllowDots(boolean allowDots) {
             super.setAllowDots(allowDots);
             return this;
@@ -105,7 +187,7 @@ public class ParseOptions extends Options {
         public ParseOptions build() {
             Options options = super.build();
             return new ParseOptions(options.isAllowDots(), options.isStrictNullHandling(),
-                    depth, parameterLimit, ignoreQueryPrefix, arrayLimit, parseArrays, comma);
+                    depth, parameterLimit, ignoreQueryPrefix, arrayLimit, parseArrays, comma, lazy, typedArrays, freeze, nodeFactory);
         }
     }
 }
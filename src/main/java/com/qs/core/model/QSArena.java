@@ -0,0 +1,149 @@
+package com.qs.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 复用 {@link QSObject}、{@link LazyQSObject} 和 {@link QSArray} 的 {@link NodeFactory}，适合在长期运行的线程中逐个处理请求：
+ * <pre>
+ * ParseOptions options = new ParseOptions.Builder().setNodeFactory(QSArena.PER_THREAD).build();
+ * QSObject query = QS.parse(s, options);
+ * ...
+ * QSArena.current().reset(); // 请求结束，之前解析出的节点全部失效
+ * </pre>
+ * reset 之后节点会被清空并再次分配，保留已增长的容量；调用方不能在 reset 之后继续持有这些节点，
+ * 也不能把它们放入 {@link com.qs.core.parser.ParseCache} 等跨请求的缓存中。已冻结的节点不会被复用。
+ * 一个 QSArena 只能在一个线程中使用。
+ */
+public final class QSArena implements NodeFactory {
+
+    private static final ThreadLocal<QSArena> sThreadArena = ThreadLocal.withInitial(QSArena::new);
+
+    /**
+     * 从当前线程的 arena 分配节点，可以放在多线程共享的 ParseOptions 中
+     */
+    public static final NodeFactory PER_THREAD = new NodeFactory() {
+        @Override
+        public QSObject newObject() {
+            return sThreadArena.get().newObject();
+        }
+
+        @Override
+        public QSArray newArray() {
+            return sThreadArena.get().newArray();
+        }
+
+        @Override
+        public LazyQSObject newLazyObject() {
+            return sThreadArena.get().newLazyObject();
+        }
+
+        @Override
+        public boolean isTrimAfterParse() {
+            return false;
+        }
+    };
+
+    private final List<QSObject> mObjects = new ArrayList<>();
+    private final List<QSArray> mArrays = new ArrayList<>();
+    private final List<LazyQSObject> mLazyObjects = new ArrayList<>();
+    // 下一个可分配的节点
+    private int mNextObject;
+    private int mNextArray;
+    private int mNextLazyObject;
+
+    public static QSArena current() {
+        return sThreadArena.get();
+    }
+
+    @Override
+    public QSObject newObject() {
+        if (mNextObject < mObjects.size()) {
+            QSObject object = mObjects.get(mNextObject);
+            if (object.isFrozen()) {
+                object = new QSObject();
+                mObjects.set(mNextObject, object);
+            } else {
+                object.clear();
+            }
+            mNextObject++;
+            return object;
+        }
+        QSObject object = new QSObject();
+        mObjects.add(object);
+        mNextObject++;
+        return object;
+    }
+
+    @Override
+    public QSArray newArray() {
+        if (mNextArray < mArrays.size()) {
+            QSArray array = mArrays.get(mNextArray);
+            if (array.isFrozen()) {
+                array = new QSArray();
+                mArrays.set(mNextArray, array);
+            } else {
+                array.clear();
+            }
+            mNextArray++;
+            return array;
+        }
+        QSArray array = new QSArray();
+        mArrays.add(array);
+        mNextArray++;
+        return array;
+    }
+
+    /**
+     * 延迟解析模式下的对象单独复用，clear 后重新开始按需解码
+     */
+    @Override
+    public LazyQSObject newLazyObject() {
+        if (mNextLazyObject < mLazyObjects.size()) {
+            LazyQSObject object = mLazyObjects.get(mNextLazyObject);
+            if (object.isFrozen()) {
+                object = new LazyQSObject();
+                mLazyObjects.set(mNextLazyObject, object);
+            } else {
+                object.clear();
+            }
+            mNextLazyObject++;
+            return object;
+        }
+        LazyQSObject object = new LazyQSObject();
+        mLazyObjects.add(object);
+        mNextLazyObject++;
+        return object;
+    }
+
+    @Override
+    public boolean isTrimAfterParse() {
+        return false;
+    }
+
+    /**
+     * 之后分配的节点从头复用，之前分配的节点全部失效
+     */
+    public void reset() {
+        mNextObject = 0;
+        mNextArray = 0;
+        mNextLazyObject = 0;
+    }
+
+    /**
+     * 丢弃全部节点，释放占用的内存
+     */
+    public void release() {
+        mObjects.clear();
+        mArrays.clear();
+        mLazyObjects.clear();
+        reset();
+    }
+
+    /**
+     * 当前持有的节点数量
+     */
+    public int capacity() {
+        return mObjects.size() + mArrays.size() + mLazyObjects.size();
+    }
+}
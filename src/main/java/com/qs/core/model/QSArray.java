@@ -1,15 +1,383 @@
 package com.qs.core.model;
 
-import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.RandomAccess;
 
-public class QSArray extends ArrayList<Object> {
+/**
+ * 按容量增长的数组列表。
+ * <p>
+ * 元素默认保存在 Object[] 中；全部为 Integer 或全部为 Long 时可以通过 {@link #specialize()} 改为 int[]/long[]
+ * 保存，读取时再装箱。基本类型存储下加入其它类型的元素会自动退回 Object[]。
+ * specialize 会把十进制整数字符串转为 Integer/Long，之后 {@link #get(int)} 返回转换后的值（toJsonString 也随之输出数字）；
+ * 除此之外 get 总是返回加入时的值。
+ * {@link #freeze()} 后不可修改。
+ */
+public class QSArray extends AbstractList<Object> implements RandomAccess, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final Object[] EMPTY = new Object[0];
+
+    // 三者中只有一个不为 null
+    private Object[] mItems = EMPTY;
+    private int[] mInts;
+    private long[] mLongs;
+    private int mSize;
+    private boolean mFrozen;
 
     public QSArray() {
         super();
     }
 
-    public QSArray(Collection<Object> c) {
-        super(c);
+    public QSArray(int capacity) {
+        if (capacity > 0) {
+            mItems = new Object[capacity];
+        }
+    }
+
+    public QSArray(Collection<?> c) {
+        Object[] items = c.toArray();
+        if (items.length > 0) {
+            mItems = Arrays.copyOf(items, items.length, Object[].class);
+            mSize = items.length;
+        }
+    }
+
+    public static QSArray ofInts(int... values) {
+        QSArray array = new QSArray();
+        array.mItems = null;
+        array.mInts = values.clone();
+        array.mSize = values.length;
+        return array;
+    }
+
+    public static QSArray ofLongs(long... values) {
+        QSArray array = new QSArray();
+        array.mItems = null;
+        array.mLongs = values.clone();
+        array.mSize = values.length;
+        return array;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public Object get(int index) {
+        checkIndex(index);
+        if (mInts != null) return mInts[index];
+        if (mLongs != null) return mLongs[index];
+        return mItems[index];
+    }
+
+    /**
+     * 不装箱读取；Object[] 存储时元素必须是 Number 或整数字符串，超出 int 范围时抛出 ArithmeticException
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        if (mInts != null) return mInts[index];
+        if (mLongs != null) return Math.toIntExact(mLongs[index]);
+        return Math.toIntExact(toNumber(mItems[index]).longValue());
+    }
+
+    public long getLong(int index) {
+        checkIndex(index);
+        if (mInts != null) return mInts[index];
+        if (mLongs != null) return mLongs[index];
+        return toNumber(mItems[index]).longValue();
+    }
+
+    public boolean isIntArray() {
+        return mInts != null;
+    }
+
+    public boolean isLongArray() {
+        return mLongs != null;
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        checkMutable();
+        checkIndex(index);
+        if (mInts != null) {
+            if (element instanceof Integer) {
+                int old = mInts[index];
+                mInts[index] = (Integer) element;
+                return old;
+            }
+            inflate();
+        } else if (mLongs != null) {
+            if (element instanceof Long) {
+                long old = mLongs[index];
+                mLongs[index] = (Long) element;
+                return old;
+            }
+            inflate();
+        }
+        Object old = mItems[index];
+        mItems[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        add(mSize, element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        checkMutable();
+        if (index < 0 || index > mSize) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+        if ((mInts != null && !(element instanceof Integer)) || (mLongs != null && !(element instanceof Long))) {
+            inflate();
+        }
+        ensureCapacity(mSize + 1);
+        if (mInts != null) {
+            System.arraycopy(mInts, index, mInts, index + 1, mSize - index);
+            mInts[index] = (Integer) element;
+        } else if (mLongs != null) {
+            System.arraycopy(mLongs, index, mLongs, index + 1, mSize - index);
+            mLongs[index] = (Long) element;
+        } else {
+            System.arraycopy(mItems, index, mItems, index + 1, mSize - index);
+            mItems[index] = element;
+        }
+        mSize++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<?> c) {
+        checkMutable();
+        Object[] items = c.toArray();
+        if (items.length == 0) return false;
+        if (mItems == null) inflate();
+        ensureCapacity(mSize + items.length);
+        System.arraycopy(items, 0, mItems, mSize, items.length);
+        mSize += items.length;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Object remove(int index) {
+        checkMutable();
+        Object old = get(index);
+        int moved = mSize - index - 1;
+        if (mInts != null) {
+            System.arraycopy(mInts, index + 1, mInts, index, moved);
+        } else if (mLongs != null) {
+            System.arraycopy(mLongs, index + 1, mLongs, index, moved);
+        } else {
+            System.arraycopy(mItems, index + 1, mItems, index, moved);
+            mItems[mSize - 1] = null;
+        }
+        mSize--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        if (mItems != null) {
+            // 保留容量，便于复用
+            Arrays.fill(mItems, 0, mSize, null);
+        } else {
+            mItems = EMPTY;
+            mInts = null;
+            mLongs = null;
+        }
+        mSize = 0;
+        modCount++;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        checkMutable();
+        int capacity = mInts != null ? mInts.length : mLongs != null ? mLongs.length : mItems.length;
+        if (minCapacity <= capacity) return;
+        capacity = Math.max(minCapacity, capacity == 0 ? DEFAULT_CAPACITY : capacity + (capacity >> 1) + 1);
+        if (mInts != null) {
+            mInts = Arrays.copyOf(mInts, capacity);
+        } else if (mLongs != null) {
+            mLongs = Arrays.copyOf(mLongs, capacity);
+        } else {
+            mItems = Arrays.copyOf(mItems, capacity);
+        }
+    }
+
+    /**
+     * 释放多余的容量
+     */
+    public void trimToSize() {
+        if (mInts != null) {
+            if (mInts.length > mSize) mInts = Arrays.copyOf(mInts, mSize);
+        } else if (mLongs != null) {
+            if (mLongs.length > mSize) mLongs = Arrays.copyOf(mLongs, mSize);
+        } else if (mItems.length > mSize) {
+            mItems = mSize == 0 ? EMPTY : Arrays.copyOf(mItems, mSize);
+        }
+    }
+
+    /**
+     * 元素全部为 Integer、Long 或十进制整数字符串（无前导 0 和 '+'，round-trip 后不变）时改为 int[] 或 long[] 存储，
+     * 字符串元素随之变为 Integer 或 Long；有任何 int 范围之外的值时使用 long[]。
+     * 同时释放多余的容量。
+     *
+     * @return 是否已是基本类型存储
+     */
+    public boolean specialize() {
+        checkMutable();
+        if (mItems == null) {
+            trimToSize();
+            return true;
+        }
+        if (mSize == 0) return false;
+        long[] values = new long[mSize];
+        boolean ints = true;
+        for (int i = 0; i < mSize; i++) {
+            Object item = mItems[i];
+            if (item instanceof Integer) {
+                values[i] = (Integer) item;
+            } else if (item instanceof Long) {
+                values[i] = (Long) item;
+                ints = false;
+            } else if (!(item instanceof String) || !parseCanonical((String) item, values, i)) {
+                return false;
+            } else if (values[i] != (int) values[i]) {
+                ints = false;
+            }
+        }
+        // Integer 元素转为 long 存储后读取类型会变化
+        if (!ints) {
+            for (int i = 0; i < mSize; i++) {
+                if (mItems[i] instanceof Integer) return false;
+            }
+        }
+        if (ints) {
+            int[] intValues = new int[mSize];
+            for (int i = 0; i < mSize; i++) {
+                intValues[i] = (int) values[i];
+            }
+            mInts = intValues;
+        } else {
+            mLongs = values;
+        }
+        mItems = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * 冻结全部元素并释放多余的容量，之后所有修改操作抛出 UnsupportedOperationException
+     *
+     * @return this
+     */
+    public QSArray freeze() {
+        if (mFrozen) return this;
+        if (mItems != null) {
+            for (int i = 0; i < mSize; i++) {
+                QSObject.freezeValue(mItems[i]);
+            }
+        }
+        trimToSize();
+        mFrozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
+    /**
+     * 已冻结时返回 this，否则返回冻结的深拷贝，this 不变
+     */
+    QSArray frozenCopy() {
+        if (mFrozen) return this;
+        QSArray copy = clone();
+        if (copy.mItems != null) {
+            for (int i = 0; i < mSize; i++) {
+                copy.mItems[i] = QSObject.frozenCopyOf(copy.mItems[i]);
+            }
+        }
+        return copy.freeze();
+    }
+
+    /**
+     * 浅拷贝，冻结的数组得到可修改的拷贝，元素不变
+     */
+    @Override
+    public QSArray clone() {
+        try {
+            QSArray clone = (QSArray) super.clone();
+            if (mItems != null) clone.mItems = mItems.clone();
+            if (mInts != null) clone.mInts = mInts.clone();
+            if (mLongs != null) clone.mLongs = mLongs.clone();
+            clone.modCount = 0;
+            clone.mFrozen = false;
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * 退回 Object[] 存储
+     */
+    private void inflate() {
+        Object[] items = new Object[Math.max(mSize, DEFAULT_CAPACITY)];
+        for (int i = 0; i < mSize; i++) {
+            items[i] = mInts != null ? (Object) mInts[i] : (Object) mLongs[i];
+        }
+        mItems = items;
+        mInts = null;
+        mLongs = null;
+    }
+
+    private void checkMutable() {
+        if (mFrozen) throw new UnsupportedOperationException("QSArray is frozen");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mSize) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+
+    private static Number toNumber(Object item) {
+        if (item instanceof Number) return (Number) item;
+        return Long.valueOf(String.valueOf(item));
+    }
+
+    /**
+     * 按 String.valueOf(long) 的格式解析
+     */
+    private static boolean parseCanonical(String s, long[] values, int index) {
+        int length = s.length();
+        int i = 0;
+        boolean negative = length > 1 && s.charAt(0) == '-';
+        if (negative) i++;
+        if (i == length || length - i > 19) return false;
+        if (s.charAt(i) == '0' && (length - i > 1 || negative)) return false;
+        long value = 0;
+        for (; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+            // 以负数累加，Long.MIN_VALUE 也能表示
+            long next = value * 10 - (ch - '0');
+            if (value < Long.MIN_VALUE / 10 || next > value) return false;
+            value = next;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) return false;
+            value = -value;
+        }
+        values[index] = value;
+        return true;
     }
 }
@@ -6,18 +6,444 @@ import com.qs.core.interfaces.QStreamAware;
 import com.qs.core.stringify.Stringifier;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.io.Writer;
-import java.util.LinkedHashMap;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
-public class QSObject extends LinkedHashMap<String, Object> implements QSAware, QStreamAware {
+/**
+ * 按插入顺序保存 key/value 的 Map。
+ * <p>
+ * key 和 value 分别保存在两个数组中，不为每个 key 创建 entry 对象；不超过 {@value #HASH_THRESHOLD} 个 key 时线性查找，
+ * 超过后额外建立开放寻址的下标表。删除会移动其后的元素，适合以读取为主的解析结果。与 LinkedHashMap 一样允许一个 null key。
+ * <p>
+ * {@link #freeze()} 后整棵树不可修改，读取不会写入任何状态，可以在多个线程间共享。
+ * freeze 本身不建立 happens-before 关系，冻结的树需要经由同步的方式交给其他线程，
+ * 例如 volatile 字段、并发容器（如 {@link com.qs.core.parser.ParseCache}）、提交到 Executor 的任务或 Thread#start。
+ */
+public class QSObject extends AbstractMap<String, Object> implements QSAware, QStreamAware, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final int HASH_THRESHOLD = 8;
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] mKeys = EMPTY;
+    private Object[] mValues = EMPTY;
+    private int mSize;
+    private boolean mFrozen;
+    // 下标 + 1，0 表示空位；长度为 2 的幂，不超过 HASH_THRESHOLD 个 key 时为 null
+    private transient int[] mTable;
+    private transient int mModCount;
 
     public QSObject() {
         super();
     }
 
+    public QSObject(int capacity) {
+        if (capacity > 0) {
+            mKeys = new Object[capacity];
+            mValues = new Object[capacity];
+        }
+    }
+
     public QSObject(Map<String, String> map) {
-        super(map);
+        this(map.size());
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < mSize; i++) {
+            if (Objects.equals(value, mValues[i])) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : mValues[index];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        checkMutable();
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object old = mValues[index];
+            mValues[index] = value;
+            return old;
+        }
+        if (mSize == mKeys.length) {
+            int capacity = mSize == 0 ? DEFAULT_CAPACITY : mSize + (mSize >> 1) + 1;
+            mKeys = Arrays.copyOf(mKeys, capacity);
+            mValues = Arrays.copyOf(mValues, capacity);
+        }
+        mKeys[mSize] = key;
+        mValues[mSize] = value;
+        mSize++;
+        mModCount++;
+        if (mTable != null && mSize * 2 <= mTable.length) {
+            insert(mTable, key, mSize - 1);
+        } else if (mSize > HASH_THRESHOLD) {
+            rehash();
+        }
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        checkMutable();
+        int index = indexOf(key);
+        if (index < 0) return null;
+        Object old = mValues[index];
+        removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        Arrays.fill(mKeys, 0, mSize, null);
+        Arrays.fill(mValues, 0, mSize, null);
+        mSize = 0;
+        mTable = null;
+        mModCount++;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        int modCount = mModCount;
+        for (int i = 0; i < mSize; i++) {
+            action.accept((String) mKeys[i], mValues[i]);
+            if (modCount != mModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * 释放多余的容量
+     */
+    public void trimToSize() {
+        if (mKeys.length > mSize) {
+            mKeys = mSize == 0 ? EMPTY : Arrays.copyOf(mKeys, mSize);
+            mValues = mSize == 0 ? EMPTY : Arrays.copyOf(mValues, mSize);
+        }
+    }
+
+    /**
+     * 释放整棵树中对象和数组多余的容量，不会解码 {@link LazyValue}；
+     * typedArrays 为 true 时数组按 {@link QSArray#specialize()} 改为基本类型存储
+     */
+    public void compact(boolean typedArrays) {
+        if (mFrozen) return;
+        trimToSize();
+        for (int i = 0; i < mSize; i++) {
+            compactValue(mValues[i], typedArrays);
+        }
+    }
+
+    private static void compactValue(Object value, boolean typedArrays) {
+        if (value instanceof QSObject) {
+            ((QSObject) value).compact(typedArrays);
+        } else if (value instanceof QSArray) {
+            QSArray array = (QSArray) value;
+            if (typedArrays && array.specialize()) return;
+            array.trimToSize();
+            for (int i = 0, size = array.size(); i < size; i++) {
+                compactValue(array.get(i), typedArrays);
+            }
+        }
+    }
+
+    /**
+     * 把整棵树转为不可修改：先解码全部延迟 value、释放多余的容量，之后所有修改操作抛出 UnsupportedOperationException
+     *
+     * @return this
+     */
+    public QSObject freeze() {
+        if (mFrozen) return this;
+        for (int i = 0; i < mSize; i++) {
+            freezeValue(mValues[i]);
+        }
+        trimToSize();
+        mFrozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
+    static void freezeValue(Object value) {
+        if (value instanceof QSObject) {
+            ((QSObject) value).freeze();
+        } else if (value instanceof QSArray) {
+            ((QSArray) value).freeze();
+        }
+    }
+
+    /**
+     * 已冻结时返回 this，否则返回冻结的深拷贝，this 不变
+     */
+    QSObject frozenCopy() {
+        if (mFrozen) return this;
+        QSObject copy = clone();
+        for (int i = 0; i < copy.mSize; i++) {
+            copy.mValues[i] = frozenCopyOf(copy.mValues[i]);
+        }
+        return copy.freeze();
+    }
+
+    static Object frozenCopyOf(Object value) {
+        if (value instanceof QSObject) return ((QSObject) value).frozenCopy();
+        if (value instanceof QSArray) return ((QSArray) value).frozenCopy();
+        return value;
+    }
+
+    private void checkMutable() {
+        if (mFrozen) throw new UnsupportedOperationException("QSObject is frozen");
+    }
+
+    /**
+     * 返回 path 处的值替换为 value 的新对象，原对象不变。
+     * <p>
+     * path 按解析 key 的规则拆分，例如 'a[b][0]'；只复制 path 经过的对象和数组，其余子树与原对象共享，
+     * 因此原对象未冻结时修改共享的子树会互相影响。数组中的 '[]' 或等于长度的下标表示追加，
+     * path 经过的节点不存在或不是容器时按下一个 path 新建对象或数组。原对象已冻结时结果也会冻结，未冻结的 value 以冻结的拷贝放入结果，value 本身不变。
+     */
+    public QSObject with(String path, Object value) {
+        return QSPath.compile(path).with(this, value);
+    }
+
+    /**
+     * 返回删除 path 处的值后的新对象，path 不存在时返回 this；与 {@link #with} 一样共享未修改的子树
+     */
+    public QSObject without(String path) {
+        return QSPath.compile(path).without(this);
+    }
+
+    /**
+     * 返回合并 other 后的新对象：两边都是对象的 key 递归合并，其余以 other 中的值为准。
+     * 未修改的子树与两个原对象共享；原对象已冻结时结果也会冻结，此时 other 中未冻结的子树以冻结的拷贝放入结果，other 不变
+     */
+    public QSObject merge(QSObject other) {
+        if (other.isEmpty()) return this;
+        QSObject result = clone();
+        for (Map.Entry<String, Object> entry : other.entrySet()) {
+            Object current = result.get(entry.getKey());
+            Object value = entry.getValue();
+            if (current instanceof QSObject && value instanceof QSObject) {
+                value = ((QSObject) current).merge((QSObject) value);
+            } else if (mFrozen) {
+                value = frozenCopyOf(value);
+            }
+            result.put(entry.getKey(), value);
+        }
+        return mFrozen ? result.freeze() : result;
+    }
+
+    /**
+     * 浅拷贝，冻结的对象得到可修改的拷贝，子节点不变
+     */
+    @Override
+    public QSObject clone() {
+        try {
+            QSObject clone = (QSObject) super.clone();
+            clone.mKeys = mKeys.clone();
+            clone.mValues = mValues.clone();
+            clone.mTable = mTable == null ? null : mTable.clone();
+            clone.mFrozen = false;
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private int indexOf(Object key) {
+        int[] table = mTable;
+        if (table == null) {
+            for (int i = 0; i < mSize; i++) {
+                if (Objects.equals(key, mKeys[i])) return i;
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (index < 0) return -1;
+            if (Objects.equals(key, mKeys[index])) return index;
+        }
+    }
+
+    private void removeAt(int index) {
+        checkMutable();
+        int moved = mSize - index - 1;
+        if (moved > 0) {
+            System.arraycopy(mKeys, index + 1, mKeys, index, moved);
+            System.arraycopy(mValues, index + 1, mValues, index, moved);
+        }
+        mSize--;
+        mKeys[mSize] = null;
+        mValues[mSize] = null;
+        mModCount++;
+        if (mTable != null) {
+            if (mSize > HASH_THRESHOLD) {
+                rehash();
+            } else {
+                mTable = null;
+            }
+        }
+    }
+
+    private void rehash() {
+        int length = Integer.highestOneBit(mSize * 4 - 1);
+        int[] table = new int[length];
+        for (int i = 0; i < mSize; i++) {
+            insert(table, mKeys[i], i);
+        }
+        mTable = table;
+    }
+
+    private static void insert(int[] table, Object key, int index) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (mSize > HASH_THRESHOLD) rehash();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public int size() {
+            return mSize;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public void clear() {
+            QSObject.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int mNext;
+        private int mLast = -1;
+        private int mExpectedModCount = mModCount;
+
+        @Override
+        public boolean hasNext() {
+            return mNext < mSize;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (mExpectedModCount != mModCount) throw new ConcurrentModificationException();
+            if (mNext >= mSize) throw new NoSuchElementException();
+            mLast = mNext++;
+            return new Entry(mLast);
+        }
+
+        @Override
+        public void remove() {
+            if (mLast < 0) throw new IllegalStateException();
+            if (mExpectedModCount != mModCount) throw new ConcurrentModificationException();
+            removeAt(mLast);
+            mNext = mLast;
+            mLast = -1;
+            mExpectedModCount = mModCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Object> {
+        private final int mIndex;
+
+        Entry(int index) {
+            this.mIndex = index;
+        }
+
+        @Override
+        public String getKey() {
+            return (String) mKeys[mIndex];
+        }
+
+        @Override
+        public Object getValue() {
+            return mValues[mIndex];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            checkMutable();
+            Object old = mValues[mIndex];
+            mValues[mIndex] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
     }
 
     @Override
@@ -37,7 +463,27 @@ public class QSObject extends LinkedHashMap<String, Object> implements QSAware,
 
     @Override
     public void writeQString(Writer out, StringifyOptions options) throws IOException {
-        out.write(toQString(options));
+        Stringifier.writeQString(this, options, out);
+    }
+
+    @Override
+    public void writeQString(OutputStream out) throws IOException {
+        writeQString(out, new StringifyOptions.Builder().build());
+    }
+
+    @Override
+    public void writeQString(OutputStream out, StringifyOptions options) throws IOException {
+        Stringifier.writeQString(this, options, out);
+    }
+
+    @Override
+    public void writeQString(WritableByteChannel out) throws IOException {
+        writeQString(out, new StringifyOptions.Builder().build());
+    }
+
+    @Override
+    public void writeQString(WritableByteChannel out, StringifyOptions options) throws IOException {
+        Stringifier.writeQString(this, options, out);
     }
 
     @Override
@@ -45,7 +491,19 @@ public class QSObject extends LinkedHashMap<String, Object> implements QSAware,
         return Stringifier.toJsonString(this);
     }
 
+    public void writeJsonString(Writer out) throws IOException {
+        Stringifier.writeJsonString(this, out);
+    }
+
+    public void writeJsonString(OutputStream out) throws IOException {
+        Stringifier.writeJsonString(this, out);
+    }
+
     public String toFormatString() {
         return QSFormatter.format(this);
     }
+
+    public String toFormatString(boolean colors) {
+        return QSFormatter.format(this, colors);
+    }
 }
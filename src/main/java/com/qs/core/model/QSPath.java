@@ -0,0 +1,247 @@
+package com.qs.core.model;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.qs.core.parser.ParseException;
+import com.qs.core.parser.PathParser;
+import com.qs.core.util.NumberUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译后的 path，例如 'filter[0][field]'，用于读取和修改 QSObject 树中的值。
+ * <p>
+ * path 按解析 key 的规则拆分（{@link PathParser}），编译时确定每一段是名称、下标还是 '[]'；
+ * 对象中按名称查找，数组中按下标查找。编译结果不可修改，可在多线程中共享，{@link #compile} 缓存最近使用的 1024 个 path，超出时淘汰最近最少使用的。
+ */
+public final class QSPath {
+
+    private static final int CACHE_LIMIT = 1024;
+    private static final String CHAR_DOT = ".";
+    private static final String REGEX_FIRST_DOT = "^\\.+";
+    private static final String REGEX_DOT = "\\.+";
+    // '[]'：数组中表示追加
+    private static final int APPEND = -2;
+    private static final int NAME = -1;
+
+    private static final Cache<String, QSPath> sCache = CacheBuilder.newBuilder().maximumSize(CACHE_LIMIT).build();
+    private static final Cache<String, QSPath> sDotsCache = CacheBuilder.newBuilder().maximumSize(CACHE_LIMIT).build();
+
+    private final String mPath;
+    private final String[] mNames;
+    // 自然数为下标，否则为 NAME 或 APPEND
+    private final int[] mIndexes;
+
+    private QSPath(String path, List<String> names) {
+        this.mPath = path;
+        this.mNames = names.toArray(new String[0]);
+        this.mIndexes = new int[mNames.length];
+        for (int i = 0; i < mNames.length; i++) {
+            String name = mNames[i];
+            mIndexes[i] = name.isEmpty() ? APPEND : NumberUtil.isNaturalNumber(name) ? Integer.parseInt(name) : NAME;
+        }
+    }
+
+    public static QSPath compile(String path) {
+        return compile(path, false);
+    }
+
+    /**
+     * allowDots 为 true 时 'a.b' 与 'a[b]' 等价；path 格式错误时抛出 IllegalArgumentException
+     */
+    public static QSPath compile(String path, boolean allowDots) {
+        Cache<String, QSPath> cache = allowDots ? sDotsCache : sCache;
+        QSPath compiled = cache.getIfPresent(path);
+        if (compiled == null) {
+            // 并发编译同一个 path 时结果相同，后放入的覆盖先放入的即可
+            compiled = new QSPath(path, split(path, allowDots));
+            cache.put(path, compiled);
+        }
+        return compiled;
+    }
+
+    public int size() {
+        return mNames.length;
+    }
+
+    /**
+     * 不存在时返回 null
+     */
+    public Object get(QSObject root) {
+        Object node = root;
+        for (int i = 0; i < mNames.length && node != null; i++) {
+            node = child(node, i);
+        }
+        return node;
+    }
+
+    public boolean exists(QSObject root) {
+        Object node = root;
+        for (int i = 0; i < mNames.length; i++) {
+            if (node instanceof QSObject) {
+                QSObject object = (QSObject) node;
+                if (!object.containsKey(mNames[i])) return false;
+                node = object.get(mNames[i]);
+            } else if (node instanceof QSArray && mIndexes[i] >= 0 && mIndexes[i] < ((QSArray) node).size()) {
+                node = ((QSArray) node).get(mIndexes[i]);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 直接修改 root：经过的节点不存在或不是容器时按下一段新建对象或数组，数组中的 '[]' 或等于长度的下标表示追加
+     */
+    public void set(QSObject root, Object value) {
+        Object node = root;
+        int last = mNames.length - 1;
+        for (int i = 0; i < last; i++) {
+            Object child = child(node, i);
+            if (!(child instanceof QSObject) && !(child instanceof QSArray)) {
+                child = newContainer(i + 1);
+                put(node, i, child);
+            }
+            node = child;
+        }
+        put(node, last, value);
+    }
+
+    /**
+     * 见 {@link QSObject#with(String, Object)}
+     */
+    public QSObject with(QSObject root, Object value) {
+        if (!root.isFrozen()) return (QSObject) with(root, 0, value);
+        return ((QSObject) with(root, 0, QSObject.frozenCopyOf(value))).freeze();
+    }
+
+    /**
+     * 见 {@link QSObject#without(String)}
+     */
+    public QSObject without(QSObject root) {
+        QSObject result = (QSObject) without(root, 0);
+        return root.isFrozen() && result != root ? result.freeze() : result;
+    }
+
+    @Override
+    public String toString() {
+        return mPath;
+    }
+
+    private Object child(Object node, int i) {
+        if (node instanceof QSObject) return ((QSObject) node).get(mNames[i]);
+        if (node instanceof QSArray) {
+            int index = mIndexes[i];
+            QSArray array = (QSArray) node;
+            return index >= 0 && index < array.size() ? array.get(index) : null;
+        }
+        return null;
+    }
+
+    private void put(Object node, int i, Object value) {
+        if (node instanceof QSObject) {
+            ((QSObject) node).put(mNames[i], value);
+            return;
+        }
+        QSArray array = (QSArray) node;
+        int index = arrayIndex(array, i);
+        if (index < array.size()) {
+            array.set(index, value);
+        } else if (index == array.size()) {
+            array.add(value);
+        } else {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + array.size());
+        }
+    }
+
+    private Object with(Object node, int i, Object value) {
+        if (i == mNames.length) return value;
+        if (node instanceof QSObject) {
+            QSObject copy = ((QSObject) node).clone();
+            copy.put(mNames[i], with(copy.get(mNames[i]), i + 1, value));
+            return copy;
+        }
+        if (node instanceof QSArray) {
+            QSArray copy = ((QSArray) node).clone();
+            int index = arrayIndex(copy, i);
+            if (index < copy.size()) {
+                copy.set(index, with(copy.get(index), i + 1, value));
+            } else if (index == copy.size()) {
+                copy.add(with(null, i + 1, value));
+            } else {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + copy.size());
+            }
+            return copy;
+        }
+        return with(newContainer(i), i, value);
+    }
+
+    private Object without(Object node, int i) {
+        boolean last = i == mNames.length - 1;
+        if (node instanceof QSObject) {
+            QSObject object = (QSObject) node;
+            String name = mNames[i];
+            if (!object.containsKey(name)) return node;
+            if (last) {
+                QSObject copy = object.clone();
+                copy.remove(name);
+                return copy;
+            }
+            Object child = object.get(name);
+            Object result = without(child, i + 1);
+            if (result == child) return node;
+            QSObject copy = object.clone();
+            copy.put(name, result);
+            return copy;
+        }
+        if (node instanceof QSArray && mIndexes[i] >= 0 && mIndexes[i] < ((QSArray) node).size()) {
+            QSArray array = (QSArray) node;
+            int index = mIndexes[i];
+            if (last) {
+                QSArray copy = array.clone();
+                copy.remove(index);
+                return copy;
+            }
+            Object child = array.get(index);
+            Object result = without(child, i + 1);
+            if (result == child) return node;
+            QSArray copy = array.clone();
+            copy.set(index, result);
+            return copy;
+        }
+        return node;
+    }
+
+    private int arrayIndex(QSArray array, int i) {
+        int index = mIndexes[i];
+        if (index == NAME) throw new IllegalArgumentException("'" + mNames[i] + "' is not an array index");
+        return index == APPEND ? array.size() : index;
+    }
+
+    private Object newContainer(int i) {
+        return mIndexes[i] == NAME ? new QSObject() : new QSArray();
+    }
+
+    private static List<String> split(String path, boolean allowDots) {
+        List<String> pathArray;
+        try {
+            pathArray = PathParser.parse(path, 0);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        if (!allowDots) return pathArray;
+        List<String> names = new ArrayList<>(pathArray.size() + 2);
+        for (String name : pathArray) {
+            if (name.length() > 1 && name.contains(CHAR_DOT)) {
+                for (String dotName : name.replaceAll(REGEX_FIRST_DOT, "").split(REGEX_DOT)) {
+                    names.add(dotName);
+                }
+            } else {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -1,5 +1,7 @@
 package com.qs.core.model;
 
+import java.util.Comparator;
+
 public class StringifyOptions extends Options {
 
     // URI编码
@@ -12,21 +14,28 @@ public class StringifyOptions extends Options {
     public static final boolean ADD_QUERY_PREFIX = false;
     // 是否忽略null
     public static final boolean SKIP_NULLS = false;
+    // 同一层级 key 的排序方式，null 时保持插入顺序
+    public static final Comparator<String> SORT = null;
+    // 规范形式：所有层级 key 按字典序排列，其余为默认选项，可用于生成缓存 key
+    public static final StringifyOptions CANONICAL = new Builder().setSort(Comparator.<String>naturalOrder()).build();
 
     private boolean encode;
     private boolean encodeValuesOnly;
     private ArrayFormat arrayFormat;
     private boolean addQueryPrefix;
     private boolean skipNulls;
+    private Comparator<String> sort;
 
     private StringifyOptions(boolean allowDots, boolean strictNullHandling,
-                             boolean encode, boolean encodeValuesOnly, ArrayFormat arrayFormat, boolean addQueryPrefix, boolean skipNulls) {
+                             boolean encode, boolean encodeValuesOnly, ArrayFormat arrayFormat, boolean addQueryPrefix, boolean skipNulls,
+                             Comparator<String> sort) {
         super(allowDots, strictNullHandling);
         this.encode = encode;
         this.encodeValuesOnly = encodeValuesOnly;
         this.arrayFormat = arrayFormat;
         this.addQueryPrefix = addQueryPrefix;
         this.skipNulls = skipNulls;
+        this.sort = sort;
     }
 
     public boolean isEncode() {
@@ -49,12 +58,17 @@ public class StringifyOptions extends Options {
         return skipNulls;
     }
 
+    public Comparator<String> getSort() {
+        return sort;
+    }
+
     public static class Builder extends Options.Builder {
         private boolean encode = ENCODE;
         private boolean encodeValuesOnly = ENCODE_VALUES_ONLY;
         private ArrayFormat arrayFormat = ARRAY_FORMAT;
         private boolean addQueryPrefix = ADD_QUERY_PREFIX;
         private boolean skipNulls = SKIP_NULLS;
+        private Comparator<String> sort = SORT;
 
         public Builder setEncode(boolean encode) {
             this.encode = encode;
@@ -85,6 +99,11 @@ public class StringifyOptions extends Options {
             return this;
         }
 
+        public Builder setSort(Comparator<String> sort) {
+            this.sort = sort;
+            return this;
+        }
+
         public Builder setAllowDots(boolean allowDots) {
             super.setAllowDots(allowDots);
             return this;
@@ -98,7 +117,7 @@ public class StringifyOptions extends Options {
         public StringifyOptions build() {
             Options options = super.build();
             return new StringifyOptions(options.isAllowDots(), options.isStrictNullHandling(),
-                    encode, encodeValuesOnly, arrayFormat, addQueryPrefix, skipNulls);
+                    encode, encodeValuesOnly, arrayFormat, addQueryPrefix, skipNulls, sort);
         }
     }
 }
@@ -0,0 +1,207 @@
+package com.qs.core.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.qs.core.model.ParseOptions;
+import com.qs.core.model.QSObject;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 以 (query string, {@link ParseOptions}) 为 key 缓存解析结果，可在多线程中共享。
+ * <p>
+ * 结果都已 {@link QSObject#freeze()}，可以直接交给多个调用方而不需要复制；需要修改时使用 clone 或 with/without。
+ * 解析失败的输入同样缓存，再次命中时直接抛出 ParseException；
+ * 解码失败（例如不合法的 % 转义）抛出的 IllegalArgumentException 以 {@link ParseException#ERROR_UNEXPECTED_EXCEPTION} 的形式缓存和抛出。
+ * 条目数量和总权重（query string 的长度）都有上限，超出时淘汰最近最少使用的条目。
+ */
+public final class ParseCache {
+
+    private static final ParseOptions DEFAULT_OPTIONS = new ParseOptions.Builder().build();
+
+    private final Cache<Key, Object> mCache;
+    private final LongAdder mNegativeHits = new LongAdder();
+
+    private ParseCache(Builder builder) {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().recordStats();
+        if (builder.maximumWeight >= 0) {
+            // Guava 只能设置一种上限：每个条目的权重至少为 maximumWeight / maximumSize，同时满足两个上限
+            long minimumWeight = builder.maximumSize > 0 ? Math.max(1, builder.maximumWeight / builder.maximumSize) : 1;
+            int weight = (int) Math.min(Integer.MAX_VALUE, minimumWeight);
+            cacheBuilder.maximumWeight(builder.maximumWeight)
+                    .weigher((Key key, Object value) -> Math.max(weight, key.mRaw.length()));
+        } else if (builder.maximumSize >= 0) {
+            cacheBuilder.maximumSize(builder.maximumSize);
+        }
+        if (builder.expireAfterAccessNanos > 0) {
+            cacheBuilder.expireAfterAccess(builder.expireAfterAccessNanos, TimeUnit.NANOSECONDS);
+        }
+        this.mCache = cacheBuilder.build();
+    }
+
+    public QSObject parse(String s) throws ParseException {
+        return parse(s, DEFAULT_OPTIONS);
+    }
+
+    public QSObject parse(String s, ParseOptions options) throws ParseException {
+        Object result;
+        boolean[] loaded = new boolean[1];
+        try {
+            result = mCache.get(new Key(s, options), () -> {
+                loaded[0] = true;
+                return load(s, options);
+            });
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+        if (result instanceof ParseException) {
+            if (!loaded[0]) mNegativeHits.increment();
+            ParseException exception = (ParseException) result;
+            // 每次抛出新的异常，调用方修改异常不会影响缓存
+            throw new ParseException(exception.getPosition(), exception.getErrorType(), exception.getUnexpectedObject());
+        }
+        return (QSObject) result;
+    }
+
+    private static Object load(String s, ParseOptions options) {
+        try {
+            return new QSParser().parse(s, options).freeze();
+        } catch (ParseException e) {
+            Object unexpected = e.getUnexpectedObject();
+            return new ParseException(e.getPosition(), e.getErrorType(), unexpected == null ? null : String.valueOf(unexpected));
+        } catch (IllegalArgumentException e) {
+            return new ParseException(ParseException.ERROR_UNEXPECTED_EXCEPTION, e.getMessage());
+        }
+    }
+
+    public long size() {
+        return mCache.size();
+    }
+
+    public void invalidateAll() {
+        mCache.invalidateAll();
+    }
+
+    public Stats stats() {
+        return new Stats(mCache.stats(), mNegativeHits.sum(), mCache.size());
+    }
+
+    private static final class Key {
+        final String mRaw;
+        final ParseOptions mOptions;
+        final int mHash;
+
+        Key(String raw, ParseOptions options) {
+            this.mRaw = raw;
+            this.mOptions = options;
+            this.mHash = raw.hashCode() * 31 + options.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return mHash == key.mHash && mRaw.equals(key.mRaw) && mOptions.equals(key.mOptions);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+    }
+
+    /**
+     * 创建时的统计快照
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long negativeHitCount;
+        private final long evictionCount;
+        private final long size;
+
+        private Stats(CacheStats stats, long negativeHitCount, long size) {
+            this.hitCount = stats.hitCount();
+            this.missCount = stats.missCount();
+            this.negativeHitCount = negativeHitCount;
+            this.evictionCount = stats.evictionCount();
+            this.size = size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * 命中的条目为解析失败的次数，包含在 hitCount 中
+         */
+        public long getNegativeHitCount() {
+            return negativeHitCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hitCount=" + hitCount + ", missCount=" + missCount
+                    + ", negativeHitCount=" + negativeHitCount + ", evictionCount=" + evictionCount
+                    + ", size=" + size + "}";
+        }
+    }
+
+    public static class Builder {
+        // 最大条目数量，-1 表示不限制
+        public static final long MAXIMUM_SIZE = 10000;
+        // 最大总权重（所有 query string 的长度之和），-1 表示不限制
+        public static final long MAXIMUM_WEIGHT = -1;
+        // 最后一次访问后的过期时间，0 表示不过期
+        public static final long EXPIRE_AFTER_ACCESS = 0;
+
+        private long maximumSize = MAXIMUM_SIZE;
+        private long maximumWeight = MAXIMUM_WEIGHT;
+        private long expireAfterAccessNanos = EXPIRE_AFTER_ACCESS;
+
+        public Builder setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder setMaximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public Builder setExpireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public ParseCache build() {
+            return new ParseCache(this);
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class ParseException extends Exception {
     public static final int ERROR_UNEXPECTED_EXCEPTION = 2;
     public static final int ERROR_SKIP_ADD_EXCEPTION = 3;
     public static final int ERROR_PARSE_PATH_EXCEPTION = 4;
+    public static final int ERROR_BIND_EXCEPTION = 5;
 
     private int mErrorType;
     private Object mUnexpectedObject;
@@ -69,6 +70,9 @@ public class ParseException extends Exception {
             case ERROR_PARSE_PATH_EXCEPTION:
                 sb.append("parse path exception at position ").append(mPosition).append(". ").append("bracket not in couples or path is empty. please check path").append(": ").append(mUnexpectedObject);
                 break;
+            case ERROR_BIND_EXCEPTION:
+                sb.append("bind exception at position ").append(mPosition).append(". ").append("can't convert value to property type").append(": ").append(mUnexpectedObject);
+                break;
             default:
                 sb.append("Unkown error at position ").append(mPosition).append(".");
                 break;
@@ -1,6 +1,8 @@
 package com.qs.core.parser;
 
 import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.LazyQSObject;
+import com.qs.core.model.LazyValue;
 import com.qs.core.model.ParseOptions;
 import com.qs.core.model.QSArray;
 import com.qs.core.model.QSObject;
@@ -14,7 +16,7 @@ import java.util.List;
 
 public class ParserHandler {
 
-    private static final String REGEX_EQUAL_SIGN = "\\=";
+    private static final char CHAR_EQUAL = '=';
     private static final String EMPTY_STRING = "";
     /**
      * 处理解析 {@link ArrayFormat#BRACKETS} 格式数组
@@ -27,9 +29,9 @@ public class ParserHandler {
     private static final String REGEX_COMMA = ",";
     private static final String WRAP_DEFAULT_PATH = "0";
 
-    private QSObject mQSObject = newObject();
+    private QSObject mQSObject;
     private LinkedList<String> mPathQueue = new LinkedList<>();
-    private QSArray mValueList = newArray();
+    private QSArray mValueList;
 
     private ParseOptions mOptions;
 
@@ -37,19 +39,49 @@ public class ParserHandler {
 
     public ParserHandler(ParseOptions mOptions) {
         this.mOptions = mOptions;
+        this.mQSObject = newObject();
+        this.mValueList = newArray();
     }
 
     void offerPair(String kvPair, int position) throws ParseException {
-        String[] kvArray = kvPair.split(REGEX_EQUAL_SIGN, 2);
-        offerEncodePath(kvArray[0], position);
-        if (kvArray.length == 1) { // 没有value存在时
+        offerPair(kvPair, 0, kvPair.length(), position);
+    }
+
+    /**
+     * 处理 source 中 [start, end) 区间内的一个 key=value
+     */
+    void offerPair(String source, int start, int end, int position) throws ParseException {
+        int indexEqual = source.indexOf(CHAR_EQUAL, start);
+        if (indexEqual == -1 || indexEqual >= end) {
+            offerPair(source, start, end, -1, end, position);
+        } else {
+            offerPair(source, start, indexEqual, indexEqual + 1, end, position);
+        }
+    }
+
+    /**
+     * 处理 {@link QSIndex} 中第 i 个 key=value
+     */
+    void offerPair(QSIndex index, int i) throws ParseException {
+        int valueStart = index.hasValue(i) ? index.valueStart(i) : -1;
+        offerPair(index.getSource(), index.keyStart(i), index.keyEnd(i), valueStart, index.valueEnd(i), index.keyStart(i));
+    }
+
+    /**
+     * valueStart 为 -1 表示没有 = 号
+     */
+    private void offerPair(String source, int keyStart, int keyEnd, int valueStart, int valueEnd, int position) throws ParseException {
+        offerDecodePath(QSDecoder.decode(source, keyStart, keyEnd), position);
+        if (valueStart == -1) { // 没有value存在时
             if (mOptions.isStrictNullHandling()) {
                 offerValue(null);
             } else {
                 offerValue(EMPTY_STRING);
             }
+        } else if (mOptions.isLazy() && !mOptions.isComma() && valueStart < valueEnd) {
+            mValueList.add(new LazyValue(source, valueStart, valueEnd));
         } else {
-            offerValue(kvArray[1]);
+            offerValue(QSDecoder.decode(source, valueStart, valueEnd));
         }
 
         handleDepth();
@@ -60,8 +92,7 @@ public class ParserHandler {
         return mParameterCount >= mOptions.getParameterLimit();
     }
 
-    private void offerEncodePath(String key, int position) throws ParseException {
-        String decodePath = QSDecoder.decode(key);
+    private void offerDecodePath(String decodePath, int position) throws ParseException {
         List<String> pathArray = PathParser.parse(decodePath, position);
         for (int i = 0; i < pathArray.size(); i++) {
             offerPath(pathArray.get(i));
@@ -69,8 +100,7 @@ public class ParserHandler {
         mParameterCount++;
     }
 
-    private void offerValue(String value) {
-        String decodeValue = QSDecoder.decode(value);
+    private void offerValue(String decodeValue) {
         if (mOptions.isComma() && decodeValue != null && !decodeValue.isEmpty()) {
             int indexComma = decodeValue.indexOf(CHAR_COMMA);
             if (indexComma == -1) {
@@ -114,7 +144,14 @@ public class ParserHandler {
         }
     }
 
+    /**
+     * 解析结束后释放多余的容量，按需转为基本类型数组并冻结
+     */
     QSObject getQSObject() {
+        if (mOptions.getNodeFactory().isTrimAfterParse() || mOptions.isTypedArrays()) {
+            mQSObject.compact(mOptions.isTypedArrays());
+        }
+        if (mOptions.isFreeze()) mQSObject.freeze();
         return mQSObject;
     }
 
@@ -129,9 +166,11 @@ public class ParserHandler {
             if (current instanceof QSObject) {
                 QSObject object = (QSObject) current;
                 String wrapPath = wrapPathValue(String.valueOf(path));
-                child = object.get(wrapPath);
-                if (child == null) child = isArrayIndex(pathQueue.get(i + 1)) ? newArray() : newObject();
-                object.put(wrapPath, child);
+                child = getChild(object, wrapPath);
+                if (child == null) {
+                    child = isArrayIndex(pathQueue.get(i + 1)) ? newArray() : newObject();
+                    object.put(wrapPath, child);
+                }
             } else {
                 if (isArrayIndex(path)) {
                     QSArray array = (QSArray) current;
@@ -168,7 +207,7 @@ public class ParserHandler {
             String wrapPath = wrapPathValue(String.valueOf(lastPath));
             Object value = processValue(valueList);
             if (object.containsKey(wrapPath)) {
-                Object existObject = object.get(wrapPath);
+                Object existObject = getChild(object, wrapPath);
                 if (existObject instanceof QSArray) {
                     QSArray existArray = ((QSArray) existObject);
                     if (value instanceof QSArray) {
@@ -178,7 +217,7 @@ public class ParserHandler {
                     }
                 } else {
                     QSArray array = newArray();
-                    array.add(object.get(wrapPath));
+                    array.add(existObject);
                     array.add(value);
                     object.put(wrapPath, array);
                 }
@@ -228,7 +267,12 @@ public class ParserHandler {
             }
         }
         mPathQueue = new LinkedList<>();
-        mValueList = newArray();
+        // 只有一个 value 时数组本身没有放入结果中，可以继续使用
+        if (valueList.size() == 1) {
+            valueList.clear();
+        } else {
+            mValueList = newArray();
+        }
     }
 
     private void connectToParent(Object parent, Object parentPath, Object linkObject) {
@@ -241,6 +285,16 @@ public class ParserHandler {
         }
     }
 
+    /**
+     * 延迟解析模式下读取子节点时不触发 value 解码
+     */
+    private Object getChild(QSObject object, String key) {
+        if (object instanceof LazyQSObject) {
+            return ((LazyQSObject) object).peek(key);
+        }
+        return object.get(key);
+    }
+
     private QSObject arrayToMap(Object array) {
         QSArray qsArray = (QSArray) array;
         final int size = qsArray.size();
@@ -265,11 +319,14 @@ public class ParserHandler {
     }
 
     private QSArray newArray() {
-        return new QSArray();
+        return mOptions.getNodeFactory().newArray();
     }
 
     private QSObject newObject() {
-        return new QSObject();
+        if (mOptions.isLazy()) {
+            return mOptions.getNodeFactory().newLazyObject();
+        }
+        return mOptions.getNodeFactory().newObject();
     }
 
     private boolean isArrayIndex(String value) {
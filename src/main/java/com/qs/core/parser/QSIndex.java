@@ -0,0 +1,180 @@
+package com.qs.core.parser;
+
+import com.qs.core.model.ParseOptions;
+import com.qs.core.util.QSDecoder;
+
+import java.util.Arrays;
+
+/**
+ * 只建立索引的扁平解析：每个 key=value 在 int[] 中占 {@link #SLOT_SIZE} 个位置，
+ * 依次为 key 起止、value 起止在原始输入中的下标以及标志位，不为单个 pair 创建对象。
+ * <p>
+ * 对象可在同一线程内反复 {@link #index(String, ParseOptions)} 复用，非线程安全。
+ */
+public class QSIndex {
+
+    public static final int FLAG_HAS_VALUE = 1;
+    public static final int FLAG_KEY_NEEDS_DECODING = 1 << 1;
+    public static final int FLAG_VALUE_NEEDS_DECODING = 1 << 2;
+
+    private static final int SLOT_SIZE = 5;
+    private static final int SLOT_KEY_START = 0;
+    private static final int SLOT_KEY_END = 1;
+    private static final int SLOT_VALUE_START = 2;
+    private static final int SLOT_VALUE_END = 3;
+    private static final int SLOT_FLAGS = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final char CHAR_AND = '&';
+    private static final char CHAR_EQUAL = '=';
+    private static final char CHAR_PERCENT = '%';
+    private static final char CHAR_PLUS = '+';
+    private static final char CHAR_QUERY_PREFIX = '?';
+
+    private static final ParseOptions DEFAULT_OPTIONS = new ParseOptions.Builder().build();
+
+    private String mSource;
+    private int[] mSlots;
+    private int mSize;
+
+    public QSIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QSIndex(int capacity) {
+        mSlots = new int[Math.max(capacity, 1) * SLOT_SIZE];
+    }
+
+    public QSIndex index(String s) {
+        return index(s, DEFAULT_OPTIONS);
+    }
+
+    public QSIndex index(String s, ParseOptions options) {
+        mSource = s;
+        mSize = 0;
+        if (s == null) return this;
+        int length = s.length();
+        int parameterLimit = options.getParameterLimit();
+        int start = 0;
+        if (options.isIgnoreQueryPrefix() && length > 0 && s.charAt(0) == CHAR_QUERY_PREFIX) {
+            start = 1;
+        }
+        while (start < length && mSize < parameterLimit) {
+            int indexEqual = -1;
+            int flags = 0;
+            int end = start;
+            for (; end < length; end++) {
+                char ch = s.charAt(end);
+                if (ch == CHAR_AND) {
+                    break;
+                } else if (ch == CHAR_EQUAL) {
+                    if (indexEqual == -1) {
+                        indexEqual = end;
+                        flags |= FLAG_HAS_VALUE;
+                    }
+                } else if (ch == CHAR_PERCENT || ch == CHAR_PLUS) {
+                    flags |= indexEqual == -1 ? FLAG_KEY_NEEDS_DECODING : FLAG_VALUE_NEEDS_DECODING;
+                }
+            }
+            if (end > start) {
+                if (indexEqual == -1) {
+                    add(start, end, end, end, flags);
+                } else {
+                    add(start, indexEqual, indexEqual + 1, end, flags);
+                }
+            }
+            start = end + 1;
+        }
+        return this;
+    }
+
+    /**
+     * 释放对原始输入的引用，保留已分配的 int[] 以便复用
+     */
+    public void clear() {
+        mSource = null;
+        mSize = 0;
+    }
+
+    public String getSource() {
+        return mSource;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public int keyStart(int i) {
+        return slot(i, SLOT_KEY_START);
+    }
+
+    public int keyEnd(int i) {
+        return slot(i, SLOT_KEY_END);
+    }
+
+    public int valueStart(int i) {
+        return slot(i, SLOT_VALUE_START);
+    }
+
+    public int valueEnd(int i) {
+        return slot(i, SLOT_VALUE_END);
+    }
+
+    public int flags(int i) {
+        return slot(i, SLOT_FLAGS);
+    }
+
+    public boolean hasValue(int i) {
+        return (flags(i) & FLAG_HAS_VALUE) != 0;
+    }
+
+    public boolean keyNeedsDecoding(int i) {
+        return (flags(i) & FLAG_KEY_NEEDS_DECODING) != 0;
+    }
+
+    public boolean valueNeedsDecoding(int i) {
+        return (flags(i) & FLAG_VALUE_NEEDS_DECODING) != 0;
+    }
+
+    public String key(int i) {
+        String raw = mSource.substring(keyStart(i), keyEnd(i));
+        return keyNeedsDecoding(i) ? QSDecoder.decode(raw) : raw;
+    }
+
+    /**
+     * 没有 = 时返回 null
+     */
+    public String value(int i) {
+        if (!hasValue(i)) return null;
+        String raw = mSource.substring(valueStart(i), valueEnd(i));
+        return valueNeedsDecoding(i) ? QSDecoder.decode(raw) : raw;
+    }
+
+    /**
+     * 按解码后的完整 key 查找第一个匹配的下标，不存在时返回 -1
+     */
+    public int indexOf(String key) {
+        for (int i = 0; i < mSize; i++) {
+            if (QSScanner.keyMatches(mSource, keyStart(i), keyEnd(i), key)) return i;
+        }
+        return -1;
+    }
+
+    private int slot(int i, int slot) {
+        if (i < 0 || i >= mSize) throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + mSize);
+        return mSlots[i * SLOT_SIZE + slot];
+    }
+
+    private void add(int keyStart, int keyEnd, int valueStart, int valueEnd, int flags) {
+        int offset = mSize * SLOT_SIZE;
+        if (offset + SLOT_SIZE > mSlots.length) {
+            mSlots = Arrays.copyOf(mSlots, mSlots.length * 2);
+        }
+        mSlots[offset + SLOT_KEY_START] = keyStart;
+        mSlots[offset + SLOT_KEY_END] = keyEnd;
+        mSlots[offset + SLOT_VALUE_START] = valueStart;
+        mSlots[offset + SLOT_VALUE_END] = valueEnd;
+        mSlots[offset + SLOT_FLAGS] = flags;
+        mSize++;
+    }
+}
@@ -5,7 +5,6 @@ import com.qs.core.model.QSObject;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 
 public class QSParser {
 
@@ -14,6 +13,7 @@ public class QSParser {
     private static final int S_IN_ERROR = -1;
 
     private QSLex mLexer = new QSLex(null);
+    private QSIndex mIndex = new QSIndex();
     private QSToken mToken = null;
     private int mStatus = S_INIT;
 
@@ -35,12 +35,19 @@ public class QSParser {
         return parse(s, new ParseOptions.Builder().build());
     }
 
+    /**
+     * 字符串输入直接基于 {@link QSIndex} 构建，不经过词法分析器
+     */
     public QSObject parse(String s, ParseOptions options) throws ParseException {
-        StringReader in = new StringReader(s);
+        QSIndex index = mIndex.index(s, options);
         try {
-            return parse(in, options);
-        } catch (IOException e) {
-            throw new ParseException(S_IN_ERROR, ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+            ParserHandler parserHandler = new ParserHandler(options);
+            for (int i = 0, size = index.size(); i < size; i++) {
+                parserHandler.offerPair(index, i);
+            }
+            return parserHandler.getQSObject();
+        } finally {
+            index.clear();
         }
     }
 
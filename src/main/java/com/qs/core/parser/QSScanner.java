@@ -0,0 +1,158 @@
+package com.qs.core.parser;
+
+import com.qs.core.model.ParseOptions;
+import com.qs.core.util.QSDecoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 不构建 {@link com.qs.core.model.QSObject}，直接在原始 query string 上查找单个参数。
+ * <p>
+ * key 按完整的原始 key 比较（如 "page[size]"），比较时对原始 key 逐字符解码，只有命中的 value 才会被解码。
+ */
+public class QSScanner {
+
+    private static final char CHAR_AND = '&';
+    private static final char CHAR_EQUAL = '=';
+    private static final char CHAR_PERCENT = '%';
+    private static final char CHAR_PLUS = '+';
+    private static final char CHAR_QUERY_PREFIX = '?';
+    private static final String EMPTY_STRING = "";
+
+    private static final ParseOptions DEFAULT_OPTIONS = new ParseOptions.Builder().build();
+
+    private QSScanner() {
+    }
+
+    public static String getFirst(String s, String key) {
+        return getFirst(s, key, DEFAULT_OPTIONS);
+    }
+
+    public static String getFirst(String s, String key, ParseOptions options) {
+        if (s == null || key == null) return null;
+        int length = s.length();
+        int parameterLimit = options.getParameterLimit();
+        int parameterCount = 0;
+        int start = skipQueryPrefix(s, options);
+        while (start < length && parameterCount < parameterLimit) {
+            int end = indexOf(s, CHAR_AND, start, length);
+            if (end > start) {
+                parameterCount++;
+                int indexEqual = indexOf(s, CHAR_EQUAL, start, end);
+                if (keyMatches(s, start, indexEqual, key)) {
+                    return value(s, indexEqual, end, options);
+                }
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    public static List<String> getAll(String s, String key) {
+        return getAll(s, key, DEFAULT_OPTIONS);
+    }
+
+    public static List<String> getAll(String s, String key, ParseOptions options) {
+        if (s == null || key == null) return Collections.emptyList();
+        List<String> values = null;
+        int length = s.length();
+        int parameterLimit = options.getParameterLimit();
+        int parameterCount = 0;
+        int start = skipQueryPrefix(s, options);
+        while (start < length && parameterCount < parameterLimit) {
+            int end = indexOf(s, CHAR_AND, start, length);
+            if (end > start) {
+                parameterCount++;
+                int indexEqual = indexOf(s, CHAR_EQUAL, start, end);
+                if (keyMatches(s, start, indexEqual, key)) {
+                    if (values == null) values = new ArrayList<>(2);
+                    values.add(value(s, indexEqual, end, options));
+                }
+            }
+            start = end + 1;
+        }
+        return values == null ? Collections.<String>emptyList() : values;
+    }
+
+    private static int skipQueryPrefix(String s, ParseOptions options) {
+        if (options.isIgnoreQueryPrefix() && !s.isEmpty() && s.charAt(0) == CHAR_QUERY_PREFIX) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int indexOf(String s, char ch, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == ch) return i;
+        }
+        return end;
+    }
+
+    private static String value(String s, int indexEqual, int end, ParseOptions options) {
+        if (indexEqual == end) { // 没有value存在时
+            return options.isStrictNullHandling() ? null : EMPTY_STRING;
+        }
+        return QSDecoder.decode(s, indexEqual + 1, end);
+    }
+
+    /**
+     * 将原始 key 按 UTF-8 逐个码点解码后与 key 比较，不产生中间字符串；转义不合法时视为不匹配
+     */
+    static boolean keyMatches(String s, int start, int end, String key) {
+        int keyLength = key.length();
+        int i = start;
+        int j = 0;
+        while (i < end) {
+            char ch = s.charAt(i);
+            int codePoint;
+            if (ch == CHAR_PLUS) {
+                codePoint = ' ';
+                i++;
+            } else if (ch == CHAR_PERCENT) {
+                int b = hexByte(s, i, end);
+                if (b < 0) return false;
+                i += 3;
+                int continuation;
+                if (b < 0x80) {
+                    codePoint = b;
+                    continuation = 0;
+                } else if ((b & 0xE0) == 0xC0) {
+                    codePoint = b & 0x1F;
+                    continuation = 1;
+                } else if ((b & 0xF0) == 0xE0) {
+                    codePoint = b & 0x0F;
+                    continuation = 2;
+                } else if ((b & 0xF8) == 0xF0) {
+                    codePoint = b & 0x07;
+                    continuation = 3;
+                } else {
+                    return false;
+                }
+                for (int k = 0; k < continuation; k++) {
+                    int c = hexByte(s, i, end);
+                    if (c < 0 || (c & 0xC0) != 0x80) return false;
+                    i += 3;
+                    codePoint = (codePoint << 6) | (c & 0x3F);
+                }
+            } else {
+                codePoint = s.codePointAt(i);
+                i += Character.charCount(codePoint);
+            }
+            if (j >= keyLength) return false;
+            int keyCodePoint = key.codePointAt(j);
+            if (keyCodePoint != codePoint) return false;
+            j += Character.charCount(keyCodePoint);
+        }
+        return j == keyLength;
+    }
+
+    private static int hexByte(String s, int index, int end) {
+        if (index + 2 >= end || s.charAt(index) != CHAR_PERCENT) return -1;
+        int high = Character.digit(s.charAt(index + 1), 16);
+        int low = Character.digit(s.charAt(index + 2), 16);
+        if (high < 0 || low < 0) return -1;
+        return (high << 4) | low;
+    }
+}
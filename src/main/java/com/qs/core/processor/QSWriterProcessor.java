@@ -0,0 +1,491 @@
+package com.qs.core.processor;
+
+import com.qs.core.annotation.QSWritable;
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.stringify.QSWriters;
+import com.qs.core.util.QSEncoder;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为 {@link QSWritable} 标记的类生成 {@link com.qs.core.stringify.QSWriter}。
+ * <p>
+ * 生成的代码按属性声明顺序展开嵌套对象，key 的 path 在编译期按 arrayFormat / allowDots 拼好并完成编码，
+ * 运行时只追加数组下标和 value，输出与将对象转为 {@link com.qs.core.model.QSObject} 后
+ * {@link com.qs.core.stringify.Stringifier#toQString} 的结果一致。Map 类型的属性 key 只能在运行时确定，不支持，编译时报错。
+ */
+public class QSWriterProcessor extends AbstractProcessor {
+
+    private static final String INDENT = "    ";
+
+    private Types mTypes;
+    private Elements mElements;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(QSWritable.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        mTypes = processingEnv.getTypeUtils();
+        mElements = processingEnv.getElementUtils();
+        for (Element element : roundEnv.getElementsAnnotatedWith(QSWritable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@QSWritable can only be applied to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (GenerateException e) {
+                error(e.mElement == null ? type : e.mElement, e.getMessage());
+            } catch (IOException e) {
+                error(type, "can't write writer for " + type.getQualifiedName() + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException, GenerateException {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new GenerateException(type, "@QSWritable class must not be private");
+        }
+        QSWritable options = type.getAnnotation(QSWritable.class);
+        String packageName = mElements.getPackageOf(type).getQualifiedName().toString();
+        String writerSimpleName = writerSimpleName(type);
+        String typeName = wildcard(type.asType());
+
+        Generator generator = new Generator(options, mElements.getPackageOf(type));
+        generator.line(2, "if (object == null) return;");
+        generator.line(2, "int start = sb.length();");
+        generator.emitBean(type.asType(), "object", new ArrayList<>(), 2, new HashSet<>());
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.qs.core.stringify.QSWriter;\n");
+        source.append("import com.qs.core.stringify.QSWriters;\n\n");
+        source.append("/**\n * Generated by ").append(QSWriterProcessor.class.getName()).append(", do not edit.\n */\n");
+        source.append("public final class ").append(writerSimpleName).append(" implements QSWriter<").append(typeName).append("> {\n\n");
+        source.append(INDENT).append("@Override\n");
+        source.append(INDENT).append("public void write(").append(typeName).append(" object, StringBuilder sb) {\n");
+        source.append(generator.mCode);
+        source.append(INDENT).append("}\n}\n");
+
+        String qualifiedName = packageName.isEmpty() ? writerSimpleName : packageName + "." + writerSimpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private String writerSimpleName(TypeElement type) {
+        LinkedList<String> names = new LinkedList<>();
+        Element element = type;
+        while (element instanceof TypeElement) {
+            names.addFirst(element.getSimpleName().toString());
+            element = element.getEnclosingElement();
+        }
+        return String.join("_", names) + QSWriters.WRITER_SUFFIX;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class GenerateException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element mElement;
+
+        GenerateException(Element element, String message) {
+            super(message);
+            this.mElement = element;
+        }
+    }
+
+    /**
+     * path 中的一段：属性名（编译期常量）或数组下标（运行时变量名）
+     */
+    private static final class Segment {
+        final String mName;
+        final String mIndexVariable;
+
+        private Segment(String name, String indexVariable) {
+            this.mName = name;
+            this.mIndexVariable = indexVariable;
+        }
+
+        static Segment name(String name) {
+            return new Segment(name, null);
+        }
+
+        static Segment index(String indexVariable) {
+            return new Segment(null, indexVariable);
+        }
+
+        boolean isIndex() {
+            return mIndexVariable != null;
+        }
+    }
+
+    private final class Generator {
+        private final QSWritable mOptions;
+        private final PackageElement mPackage;
+        private final StringBuilder mCode = new StringBuilder();
+        private int mVariableCount = 0;
+        // 正在生成的属性，用于报告错误的位置
+        private Element mField;
+
+        Generator(QSWritable options, PackageElement packageElement) {
+            this.mOptions = options;
+            this.mPackage = packageElement;
+        }
+
+        void line(int indent, String code) {
+            for (int i = 0; i < indent; i++) {
+                mCode.append(INDENT);
+            }
+            mCode.append(code).append('\n');
+        }
+
+        String newVariable(String prefix) {
+            return prefix + (mVariableCount++);
+        }
+
+        void emit(TypeMirror type, String expression, List<Segment> path, int indent, Set<String> beans) throws GenerateException {
+            type = upperBound(type);
+            if (isMap(type)) {
+                // 属性名在编译期确定，无法按运行时的 key 展开
+                throw new GenerateException(mField, "Map type " + type + " is not supported by @QSWritable");
+            }
+            if (isScalar(type)) {
+                emitScalar(type, expression, path, indent);
+            } else if (type.getKind() == TypeKind.ARRAY || isIterable(type)) {
+                emitCollection(type, expression, path, indent, beans);
+            } else if (type.getKind() == TypeKind.DECLARED) {
+                String variable = newVariable("v");
+                line(indent, wildcard(type) + " " + variable + " = " + expression + ";");
+                line(indent, "if (" + variable + " == null) {");
+                emitNull(path, indent + 1);
+                line(indent, "} else {");
+                emitBean(type, variable, path, indent + 1, beans);
+                line(indent, "}");
+            } else {
+                emitScalar(type, expression, path, indent);
+            }
+        }
+
+        void emitBean(TypeMirror type, String expression, List<Segment> path, int indent, Set<String> beans) throws GenerateException {
+            TypeElement element = (TypeElement) mTypes.asElement(type);
+            String beanName = element.getQualifiedName().toString();
+            if (!beans.add(beanName)) {
+                throw new GenerateException(element, "recursive type " + beanName + " is not supported by @QSWritable");
+            }
+            Element outerField = mField;
+            for (VariableElement field : fields(element)) {
+                List<Segment> fieldPath = new ArrayList<>(path);
+                fieldPath.add(Segment.name(field.getSimpleName().toString()));
+                mField = field;
+                emit(field.asType(), access(element, field, expression), fieldPath, indent, beans);
+            }
+            mField = outerField;
+            beans.remove(beanName);
+        }
+
+        void emitCollection(TypeMirror type, String expression, List<Segment> path, int indent, Set<String> beans) throws GenerateException {
+            boolean array = type.getKind() == TypeKind.ARRAY;
+            TypeMirror elementType = array ? ((ArrayType) type).getComponentType() : iterableElement(type);
+            String variable = newVariable("c");
+            line(indent, wildcard(type) + " " + variable + " = " + expression + ";");
+            line(indent, "if (" + variable + " == null) {");
+            emitNull(path, indent + 1);
+            line(indent, "} else {");
+            String index = newVariable("i");
+            String element = newVariable("e");
+            String elementTypeName = array ? wildcard(elementType) : boxedErasure(elementType);
+            if (mOptions.arrayFormat() == ArrayFormat.COMMA) {
+                // 与 Stringifier 一致：逗号格式下整个数组作为一个 value，元素不编码
+                emitPath(path, true, indent + 1);
+                line(indent + 1, "int " + index + " = 0;");
+                openLoop(array, variable, index, element, elementTypeName, indent + 1);
+                line(indent + 2, "if (" + index + "++ > 0) sb.append(',');");
+                if (elementType.getKind().isPrimitive()) {
+                    line(indent + 2, "sb.append(" + element + ");");
+                } else {
+                    line(indent + 2, "if (" + element + " != null) sb.append(" + element + ");");
+                }
+                line(indent + 1, "}");
+            } else {
+                line(indent + 1, "int " + index + " = 0;");
+                openLoop(array, variable, index, element, elementTypeName, indent + 1);
+                List<Segment> elementPath = new ArrayList<>(path);
+                elementPath.add(Segment.index(index));
+                emit(elementType, element, elementPath, indent + 2, beans);
+                line(indent + 2, index + "++;");
+                line(indent + 1, "}");
+            }
+            line(indent, "}");
+        }
+
+        private void openLoop(boolean array, String variable, String index, String element, String elementTypeName, int indent) {
+            if (array) {
+                String position = newVariable("p");
+                line(indent, "for (int " + position + " = 0; " + position + " < " + variable + ".length; " + position + "++) {");
+                line(indent + 1, elementTypeName + " " + element + " = " + variable + "[" + position + "];");
+            } else {
+                String item = newVariable("o");
+                line(indent, "for (Object " + item + " : " + variable + ") {");
+                line(indent + 1, elementTypeName + " " + element + " = (" + elementTypeName + ") " + item + ";");
+            }
+        }
+
+        void emitScalar(TypeMirror type, String expression, List<Segment> path, int indent) {
+            if (type.getKind().isPrimitive()) {
+                emitPath(path, true, indent);
+                if (type.getKind() == TypeKind.CHAR) {
+                    line(indent, "QSWriters.appendValue(sb, " + expression + ", " + mOptions.encode() + ");");
+                } else {
+                    // 数字与 boolean 不含需要编码的字符
+                    line(indent, "sb.append(" + expression + ");");
+                }
+                return;
+            }
+            String variable = newVariable("v");
+            line(indent, wildcard(type) + " " + variable + " = " + expression + ";");
+            line(indent, "if (" + variable + " == null) {");
+            emitNull(path, indent + 1);
+            line(indent, "} else {");
+            emitPath(path, true, indent + 1);
+            line(indent + 1, "QSWriters.appendValue(sb, " + variable + ", " + mOptions.encode() + ");");
+            line(indent, "}");
+        }
+
+        void emitNull(List<Segment> path, int indent) {
+            if (mOptions.skipNulls()) return;
+            emitPath(path, !mOptions.strictNullHandling(), indent);
+        }
+
+        /**
+         * 追加分隔符与 path，规则与 Stringifier#toPathString 一致，常量部分在此处完成编码
+         */
+        void emitPath(List<Segment> path, boolean withEqual, int indent) {
+            line(indent, "if (sb.length() > start) sb.append('&');");
+            List<Object> pieces = new ArrayList<>();
+            ArrayFormat format = mOptions.arrayFormat();
+            int size = path.size();
+            for (int i = 0; i < size; i++) {
+                Segment segment = path.get(i);
+                if (mOptions.allowDots()) {
+                    if (i > 0) pieces.add(".");
+                    pieces.add(segment.isIndex() ? segment : segment.mName);
+                } else if (i == 0) {
+                    pieces.add(segment.mName);
+                } else if (i == size - 1) {
+                    if (segment.isIndex() && format == ArrayFormat.BRACKETS) {
+                        pieces.add("[]");
+                    } else if (segment.isIndex() && format == ArrayFormat.REPEAT) {
+                        // 重复 key，不追加下标
+                    } else {
+                        addBracketed(pieces, segment);
+                    }
+                } else {
+                    if (segment.isIndex() && format == ArrayFormat.BRACKETS) {
+                        pieces.add("[]");
+                    } else {
+                        addBracketed(pieces, segment);
+                    }
+                }
+            }
+            if (withEqual) pieces.add("=");
+
+            boolean encodeKey = mOptions.encode() && !mOptions.encodeValuesOnly();
+            StringBuilder literal = new StringBuilder();
+            StringBuilder statement = new StringBuilder("sb");
+            for (Object piece : pieces) {
+                if (piece instanceof String) {
+                    String text = (String) piece;
+                    literal.append("=".equals(text) || !encodeKey ? text : QSEncoder.encode(text));
+                } else {
+                    if (literal.length() > 0) {
+                        statement.append(".append(").append(stringLiteral(literal.toString())).append(")");
+                        literal.setLength(0);
+                    }
+                    statement.append(".append(").append(((Segment) piece).mIndexVariable).append(")");
+                }
+            }
+            if (literal.length() > 0) {
+                statement.append(".append(").append(stringLiteral(literal.toString())).append(")");
+            }
+            line(indent, statement.append(";").toString());
+        }
+
+        private void addBracketed(List<Object> pieces, Segment segment) {
+            pieces.add("[");
+            pieces.add(segment.isIndex() ? segment : segment.mName);
+            pieces.add("]");
+        }
+
+        private String access(TypeElement owner, VariableElement field, String expression) throws GenerateException {
+            String name = field.getSimpleName().toString();
+            if (isAccessible(field)) {
+                return expression + "." + name;
+            }
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            for (ExecutableElement method : ElementFilter.methodsIn(mElements.getAllMembers(owner))) {
+                String methodName = method.getSimpleName().toString();
+                if (method.getParameters().isEmpty() && isAccessible(method)
+                        && (methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))) {
+                    return expression + "." + methodName + "()";
+                }
+            }
+            throw new GenerateException(field, "field " + name + " is neither accessible nor has an accessible getter");
+        }
+
+        private boolean isAccessible(Element element) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC)) return true;
+            if (modifiers.contains(Modifier.PRIVATE)) return false;
+            return mElements.getPackageOf(element).equals(mPackage);
+        }
+    }
+
+    private List<VariableElement> fields(TypeElement type) {
+        LinkedList<TypeElement> hierarchy = new LinkedList<>();
+        TypeElement current = type;
+        while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+            hierarchy.addFirst(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) mTypes.asElement(superclass) : null;
+        }
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement element : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) continue;
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private boolean isScalar(TypeMirror type) {
+        if (type.getKind().isPrimitive()) return true;
+        if (type.getKind() != TypeKind.DECLARED) return type.getKind() != TypeKind.ARRAY;
+        TypeElement element = (TypeElement) mTypes.asElement(type);
+        if (element.getKind() == ElementKind.ENUM) return true;
+        String name = element.getQualifiedName().toString();
+        // JDK 中非集合类型（String、包装类型、BigDecimal 等）都按 String.valueOf 输出
+        return (name.startsWith("java.") || name.startsWith("javax.")) && !isIterable(type);
+    }
+
+    private boolean isMap(TypeMirror type) {
+        TypeElement map = mElements.getTypeElement(Map.class.getCanonicalName());
+        return type.getKind() == TypeKind.DECLARED
+                && mTypes.isAssignable(mTypes.erasure(type), mTypes.erasure(map.asType()));
+    }
+
+    private boolean isIterable(TypeMirror type) {
+        TypeElement iterable = mElements.getTypeElement(Iterable.class.getCanonicalName());
+        return type.getKind() == TypeKind.DECLARED
+                && mTypes.isAssignable(mTypes.erasure(type), mTypes.erasure(iterable.asType()));
+    }
+
+    private TypeMirror iterableElement(TypeMirror type) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() == 1) return upperBound(arguments.get(0));
+        return mElements.getTypeElement(Object.class.getCanonicalName()).asType();
+    }
+
+    private TypeMirror upperBound(TypeMirror type) {
+        if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType) type).getExtendsBound();
+            return bound == null ? mElements.getTypeElement(Object.class.getCanonicalName()).asType() : bound;
+        }
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return mTypes.erasure(type);
+        }
+        return type;
+    }
+
+    private String erasure(TypeMirror type) {
+        return mTypes.erasure(type).toString();
+    }
+
+    private String boxedErasure(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return mTypes.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return wildcard(type);
+    }
+
+    /**
+     * 局部变量的声明类型：泛型参数都替换为 ?，如 java.util.Map<?, ?>，避免生成代码出现 rawtypes 警告
+     */
+    private String wildcard(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return wildcard(((ArrayType) type).getComponentType()) + "[]";
+        }
+        String erasure = erasure(type);
+        if (type.getKind() != TypeKind.DECLARED) return erasure;
+        int count = ((TypeElement) mTypes.asElement(type)).getTypeParameters().size();
+        if (count == 0) return erasure;
+        StringBuilder sb = new StringBuilder(erasure).append('<');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.append('>').toString();
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                sb.append('\\').append(ch);
+            } else if (ch < 0x20 || ch > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) ch));
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
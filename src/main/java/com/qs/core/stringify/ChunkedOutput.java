@@ -0,0 +1,77 @@
+package com.qs.core.stringify;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 固定大小的字符缓冲，写满时输出到 Writer，stringify 的内存占用不随输出长度增长
+ */
+abstract class ChunkedOutput implements Appendable {
+
+    static final int BUFFER_SIZE = 8192;
+
+    final char[] mBuffer = new char[BUFFER_SIZE];
+    int mCount;
+
+    static ChunkedOutput of(Writer out) {
+        return new WriterOutput(out);
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        while (start < end) {
+            if (mCount == BUFFER_SIZE) drain();
+            int count = Math.min(end - start, BUFFER_SIZE - mCount);
+            if (csq instanceof String) {
+                ((String) csq).getChars(start, start + count, mBuffer, mCount);
+            } else if (csq instanceof StringBuilder) {
+                ((StringBuilder) csq).getChars(start, start + count, mBuffer, mCount);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    mBuffer[mCount + i] = csq.charAt(start + i);
+                }
+            }
+            mCount += count;
+            start += count;
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        if (mCount == BUFFER_SIZE) drain();
+        mBuffer[mCount++] = c;
+        return this;
+    }
+
+    /**
+     * 输出缓冲中的全部内容，不关闭也不 flush 下游
+     */
+    abstract void finish() throws IOException;
+
+    abstract void drain() throws IOException;
+
+    private static final class WriterOutput extends ChunkedOutput {
+        private final Writer mOut;
+
+        WriterOutput(Writer out) {
+            this.mOut = out;
+        }
+
+        @Override
+        void drain() throws IOException {
+            mOut.write(mBuffer, 0, mCount);
+            mCount = 0;
+        }
+
+        @Override
+        void finish() throws IOException {
+            drain();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.qs.core.stringify;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * 将 UTF-8 字节按块送入 murmur3_128，缓冲大小固定
+ */
+final class HashOutput extends Utf8Output {
+
+    private final Hasher mHasher = Hashing.murmur3_128().newHasher();
+
+    HashOutput() {
+        super(ChunkedOutput.BUFFER_SIZE);
+    }
+
+    @Override
+    void require(int count) {
+        drain();
+    }
+
+    @Override
+    void drain() {
+        mHasher.putBytes(mBytes, 0, mCount);
+        mCount = 0;
+    }
+
+    byte[] hash() {
+        return mHasher.hash().asBytes();
+    }
+}
@@ -0,0 +1,372 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.StringifyOptions;
+import com.qs.core.parser.ParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 读取 JSON 的同时直接输出 query string，不构建中间的 Map 或 {@link com.qs.core.model.QSObject}。
+ * <p>
+ * 顶层必须是 JSON 对象。输出与将同样的内容放入 QSObject 后调用 {@link Stringifier#toQString} 一致，
+ * 数字保留 JSON 中的原始写法，不符合 JSON 数字语法时抛出 ParseException；key 按输入顺序输出，不支持 {@link StringifyOptions#getSort()}。
+ * <p>
+ * 与 Map 不同，同一对象中重复的 key 不会合并，每次出现都按顺序输出。
+ */
+public final class JsonQueryTranscoder {
+
+    private static final int EOF = -1;
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String NULL = "null";
+
+    private final Reader mIn;
+    private final QueryEmitter mEmitter;
+    private final char[] mBuffer = new char[4096];
+    private final StringBuilder mScratch = new StringBuilder(32);
+    private int mPos;
+    private int mLimit;
+    private int mPosition;
+
+    private JsonQueryTranscoder(Reader in, QueryEmitter emitter) {
+        this.mIn = in;
+        this.mEmitter = emitter;
+    }
+
+    public static String toQString(String json, StringifyOptions options) throws ParseException {
+        StringBuilder sb = new StringBuilder(json.length());
+        try {
+            toQString(new StringReader(json), options, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * json 按 UTF-8 读取
+     */
+    public static String toQString(byte[] json, StringifyOptions options) throws ParseException {
+        StringBuilder sb = new StringBuilder(json.length);
+        try {
+            toQString(new ByteArrayInputStream(json), options, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    public static void toQString(InputStream json, StringifyOptions options, Appendable out) throws IOException, ParseException {
+        toQString(new InputStreamReader(json, StandardCharsets.UTF_8), options, out);
+    }
+
+    public static void toQString(Reader json, StringifyOptions options, Appendable out) throws IOException, ParseException {
+        QueryEmitter emitter = new QueryEmitter(out, options);
+        emitter.start();
+        new JsonQueryTranscoder(json, emitter).transcode();
+    }
+
+    private void transcode() throws IOException, ParseException {
+        expect('{');
+        readMembers();
+        int ch = peekToken();
+        if (ch != EOF) throw unexpected(ch);
+    }
+
+    private void readMembers() throws IOException, ParseException {
+        if (peekToken() == '}') {
+            read();
+            return;
+        }
+        do {
+            expect('"');
+            String key = readString().toString();
+            expect(':');
+            readValue(key);
+        } while (nextSeparator('}'));
+    }
+
+    private void readValue(Object key) throws IOException, ParseException {
+        int ch = peekToken();
+        switch (ch) {
+            case '{':
+                read();
+                mEmitter.push(key);
+                readMembers();
+                mEmitter.pop();
+                break;
+            case '[':
+                read();
+                if (mEmitter.getOptions().getArrayFormat() == ArrayFormat.COMMA) {
+                    mEmitter.commaStart(key);
+                    readCommaItems();
+                } else {
+                    mEmitter.push(key);
+                    readItems();
+                    mEmitter.pop();
+                }
+                break;
+            case '"':
+                read();
+                mEmitter.value(key, readString());
+                break;
+            default:
+                mEmitter.value(key, readLiteral());
+                break;
+        }
+    }
+
+    private void readItems() throws IOException, ParseException {
+        if (peekToken() == ']') {
+            read();
+            return;
+        }
+        int index = 0;
+        do {
+            readValue(index++);
+        } while (nextSeparator(']'));
+    }
+
+    /**
+     * 与 Stringifier 一致：元素不编码，null 输出为空，嵌套的对象和数组按 Map/List 的 toString 形式输出
+     */
+    private void readCommaItems() throws IOException, ParseException {
+        if (peekToken() == ']') {
+            read();
+            return;
+        }
+        int index = 0;
+        do {
+            int ch = peekToken();
+            if (ch == '{' || ch == '[') {
+                mEmitter.commaItem(index++, null);
+                readRaw(mEmitter.getOut());
+            } else if (ch == '"') {
+                read();
+                mEmitter.commaItem(index++, readString());
+            } else {
+                mEmitter.commaItem(index++, readLiteral());
+            }
+        } while (nextSeparator(']'));
+    }
+
+    private void readRaw(Appendable out) throws IOException, ParseException {
+        int ch = peekToken();
+        if (ch == '{') {
+            read();
+            out.append('{');
+            if (peekToken() == '}') {
+                read();
+            } else {
+                boolean first = true;
+                do {
+                    if (!first) out.append(", ");
+                    first = false;
+                    expect('"');
+                    out.append(readString()).append('=');
+                    expect(':');
+                    readRaw(out);
+                } while (nextSeparator('}'));
+            }
+            out.append('}');
+        } else if (ch == '[') {
+            read();
+            out.append('[');
+            if (peekToken() == ']') {
+                read();
+            } else {
+                boolean first = true;
+                do {
+                    if (!first) out.append(", ");
+                    first = false;
+                    readRaw(out);
+                } while (nextSeparator(']'));
+            }
+            out.append(']');
+        } else if (ch == '"') {
+            read();
+            out.append(readString());
+        } else {
+            CharSequence literal = readLiteral();
+            out.append(literal == null ? NULL : literal);
+        }
+    }
+
+    /**
+     * 读取 '"' 之后的字符串内容到共享的缓冲中，下一次读取前有效
+     */
+    private CharSequence readString() throws IOException, ParseException {
+        StringBuilder sb = mScratch;
+        sb.setLength(0);
+        while (true) {
+            int ch = read();
+            if (ch == '"') return sb;
+            if (ch == EOF) throw unexpected(ch);
+            if (ch == '\\') {
+                ch = read();
+                switch (ch) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append((char) ch);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        sb.append((char) (hex(read()) << 12 | hex(read()) << 8 | hex(read()) << 4 | hex(read())));
+                        break;
+                    default:
+                        throw unexpected(ch);
+                }
+            } else if (ch < 0x20) {
+                throw unexpected(ch);
+            } else {
+                sb.append((char) ch);
+            }
+        }
+    }
+
+    /**
+     * 读取数字、true、false，null 返回 null
+     */
+    private CharSequence readLiteral() throws IOException, ParseException {
+        int ch = peekToken();
+        if (ch == 't') {
+            expectWord(TRUE);
+            return TRUE;
+        }
+        if (ch == 'f') {
+            expectWord(FALSE);
+            return FALSE;
+        }
+        if (ch == 'n') {
+            expectWord(NULL);
+            return null;
+        }
+        return readNumber();
+    }
+
+    /**
+     * 按 JSON 数字语法读取：-?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private CharSequence readNumber() throws IOException, ParseException {
+        StringBuilder sb = mScratch;
+        sb.setLength(0);
+        int ch = peek();
+        if (ch == '-') {
+            sb.append((char) read());
+            ch = peek();
+        }
+        if (ch == '0') {
+            sb.append((char) read());
+        } else {
+            readDigits(sb);
+        }
+        if (peek() == '.') {
+            sb.append((char) read());
+            readDigits(sb);
+        }
+        ch = peek();
+        if (ch == 'e' || ch == 'E') {
+            sb.append((char) read());
+            ch = peek();
+            if (ch == '+' || ch == '-') sb.append((char) read());
+            readDigits(sb);
+        }
+        return sb;
+    }
+
+    /**
+     * 读取至少一位数字
+     */
+    private void readDigits(StringBuilder sb) throws IOException, ParseException {
+        int ch = peek();
+        if (ch < '0' || ch > '9') throw unexpected(ch);
+        do {
+            sb.append((char) read());
+        } while ((ch = peek()) >= '0' && ch <= '9');
+    }
+
+    private void expectWord(String word) throws IOException, ParseException {
+        for (int i = 0; i < word.length(); i++) {
+            int ch = read();
+            if (ch != word.charAt(i)) throw unexpected(ch);
+        }
+    }
+
+    private boolean nextSeparator(char close) throws IOException, ParseException {
+        int ch = peekToken();
+        read();
+        if (ch == ',') return true;
+        if (ch == close) return false;
+        throw unexpected(ch);
+    }
+
+    private void expect(char expected) throws IOException, ParseException {
+        int ch = peekToken();
+        if (ch != expected) throw unexpected(ch);
+        read();
+    }
+
+    private int hex(int ch) throws ParseException {
+        if (ch >= '0' && ch <= '9') return ch - '0';
+        if (ch >= 'a' && ch <= 'f') return ch - 'a' + 10;
+        if (ch >= 'A' && ch <= 'F') return ch - 'A' + 10;
+        throw unexpected(ch);
+    }
+
+    private ParseException unexpected(int ch) {
+        if (ch == EOF) return new ParseException(mPosition, ParseException.ERROR_UNEXPECTED_TOKEN, "EOF");
+        return new ParseException(mPosition, ParseException.ERROR_UNEXPECTED_CHAR, (char) ch);
+    }
+
+    /**
+     * 跳过空白后查看下一个字符
+     */
+    private int peekToken() throws IOException {
+        int ch;
+        while ((ch = peek()) == ' ' || ch == '\t' || ch == '\n' || ch == '\r') {
+            read();
+        }
+        return ch;
+    }
+
+    private int peek() throws IOException {
+        if (mPos == mLimit && !fill()) return EOF;
+        return mBuffer[mPos];
+    }
+
+    private int read() throws IOException {
+        if (mPos == mLimit && !fill()) return EOF;
+        mPosition++;
+        return mBuffer[mPos++];
+    }
+
+    private boolean fill() throws IOException {
+        int count = mIn.read(mBuffer, 0, mBuffer.length);
+        if (count <= 0) return false;
+        mPos = 0;
+        mLimit = count;
+        return true;
+    }
+}
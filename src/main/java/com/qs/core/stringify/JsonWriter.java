@@ -0,0 +1,132 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.LazyValue;
+import com.qs.core.util.QSDecoder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单次遍历直接写入 Appendable 的 JSON 输出，key 和字符串 value 按 RFC 8259 转义。
+ * <p>
+ * 不需要转义的连续字符整段输出，只有需要转义的字符查表处理。
+ */
+public final class JsonWriter {
+
+    private static final String[] ESCAPES = new String[128];
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String NULL = "null";
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = "\\u00" + HEX[i >> 4] + HEX[i & 0xF];
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    private final Appendable mOut;
+
+    public JsonWriter(Appendable out) {
+        this.mOut = out;
+    }
+
+    /**
+     * Map 输出为对象，List 输出为数组，Number 和 Boolean 原样输出，{@link LazyValue} 解码后输出，其余按 toString 输出为字符串
+     */
+    public void write(Object value) throws IOException {
+        if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Map) {
+            writeObject((Map<?, ?>) value);
+        } else if (value instanceof List) {
+            writeArray((List<?>) value);
+        } else if (value instanceof LazyValue) {
+            writeLazyValue((LazyValue) value);
+        } else if (value == null) {
+            mOut.append(NULL);
+        } else if (value instanceof Boolean || isFiniteNumber(value)) {
+            mOut.append(value.toString());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    public void writeString(CharSequence value) throws IOException {
+        writeString(value, 0, value.length());
+    }
+
+    public void writeString(CharSequence value, int start, int end) throws IOException {
+        mOut.append('"');
+        writeEscaped(value, start, end);
+        mOut.append('"');
+    }
+
+    private void writeLazyValue(LazyValue value) throws IOException {
+        writeRawValue(value.getSource(), value.getStart(), value.getEnd());
+    }
+
+    /**
+     * 输出 query string 中 [start, end) 区间的 value，不需要解码时直接输出原始输入中的区间
+     */
+    public void writeRawValue(String source, int start, int end) throws IOException {
+        if (QSDecoder.needDecode(source, start, end)) {
+            writeString(QSDecoder.decode(source, start, end));
+        } else {
+            writeString(source, start, end);
+        }
+    }
+
+    /**
+     * 只写入转义后的内容，不包含引号
+     */
+    public void writeEscaped(CharSequence value, int start, int end) throws IOException {
+        int run = start;
+        for (int i = start; i < end; i++) {
+            char ch = value.charAt(i);
+            if (ch < 128 && ESCAPES[ch] != null) {
+                if (run < i) mOut.append(value, run, i);
+                mOut.append(ESCAPES[ch]);
+                run = i + 1;
+            }
+        }
+        if (run < end) mOut.append(value, run, end);
+    }
+
+    private void writeObject(Map<?, ?> object) throws IOException {
+        mOut.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            if (first) {
+                first = false;
+            } else {
+                mOut.append(',');
+            }
+            writeString(String.valueOf(entry.getKey()));
+            mOut.append(':');
+            write(entry.getValue());
+        }
+        mOut.append('}');
+    }
+
+    private void writeArray(List<?> array) throws IOException {
+        mOut.append('[');
+        for (int i = 0, size = array.size(); i < size; i++) {
+            if (i > 0) mOut.append(',');
+            write(array.get(i));
+        }
+        mOut.append(']');
+    }
+
+    private static boolean isFiniteNumber(Object value) {
+        if (value instanceof Double) return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        if (value instanceof Float) return !((Float) value).isNaN() && !((Float) value).isInfinite();
+        return value instanceof Number;
+    }
+}
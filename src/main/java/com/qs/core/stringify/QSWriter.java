@@ -0,0 +1,19 @@
+package com.qs.core.stringify;
+
+/**
+ * 由 {@link com.qs.core.annotation.QSWritable} 在编译期生成的序列化器，
+ * 直接将对象属性写入 query string，不经过 {@link com.qs.core.model.QSObject}。
+ */
+public interface QSWriter<T> {
+
+    /**
+     * 将 object 的各个 key=value 追加到 sb，多个 pair 之间以 &amp; 分隔，开头不追加分隔符
+     */
+    void write(T object, StringBuilder sb);
+
+    default String toQString(T object) {
+        StringBuilder sb = new StringBuilder();
+        write(object, sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.qs.core.stringify;
+
+import com.qs.core.util.QSEncoder;
+
+/**
+ * 查找编译期生成的 {@link QSWriter}，并提供生成代码使用的辅助方法。
+ */
+public final class QSWriters {
+
+    public static final String WRITER_SUFFIX = "_QSWriter";
+
+    private static final ClassValue<QSWriter<?>> WRITERS = new ClassValue<QSWriter<?>>() {
+        @Override
+        protected QSWriter<?> computeValue(Class<?> type) {
+            String writerName = writerName(type);
+            try {
+                Class<?> writerClass = Class.forName(writerName, true, type.getClassLoader());
+                return (QSWriter<?>) writerClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("no generated writer " + writerName
+                        + ", is " + type.getName() + " annotated with @QSWritable?", e);
+            }
+        }
+    };
+
+    private QSWriters() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> QSWriter<T> of(Class<T> type) {
+        return (QSWriter<T>) WRITERS.get(type);
+    }
+
+    /**
+     * 生成类的全限定名：同包下，嵌套类以 _ 连接，如 'a.b.Outer_Inner_QSWriter'
+     */
+    public static String writerName(Class<?> type) {
+        String name = type.getName();
+        int indexDot = name.lastIndexOf('.');
+        String packageName = indexDot == -1 ? "" : name.substring(0, indexDot + 1);
+        return packageName + name.substring(indexDot + 1).replace('$', '_') + WRITER_SUFFIX;
+    }
+
+    public static void appendValue(StringBuilder sb, Object value, boolean encode) {
+        if (encode) {
+            QSEncoder.encode(String.valueOf(value), sb);
+        } else {
+            sb.append(value);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.StringifyOptions;
+import com.qs.core.util.QSEncoder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按 {@link StringifyOptions} 输出 key=value，不依赖输入的结构：调用方进入容器时 push、离开时 pop，遇到叶子时输出。
+ * <p>
+ * 已编码的 path 前缀随 push 增量扩展、pop 时按长度截断，每个叶子只需渲染最后一个 path 和 value；
+ * 每个 key 的编码结果只计算一次。下标 path 必须以 Integer 传入。
+ */
+final class QueryEmitter {
+
+    private static final String QUERY_PREFIX = "?";
+    private static final char LEFT_SQUARE = '[';
+    private static final char RIGHT_SQUARE = ']';
+    private static final String ENCODED_LEFT_SQUARE = "%5B";
+    private static final String ENCODED_RIGHT_SQUARE = "%5D";
+    private static final char DOT = '.';
+    private static final char EQUAL = '=';
+    private static final char COMMA = ',';
+
+    private final Appendable mOut;
+    private final StringifyOptions mOptions;
+    private final ArrayFormat mArrayFormat;
+    private final boolean mEncodeKeys;
+    private final StringBuilder mPrefix = new StringBuilder(33);
+    private int[] mPrefixLengths = new int[8];
+    private int mDepth;
+    private Map<String, String> mEncodedKeys;
+    private boolean mFirst = true;
+
+    QueryEmitter(Appendable out, StringifyOptions options) {
+        this.mOut = out;
+        this.mOptions = options;
+        this.mArrayFormat = options.getArrayFormat();
+        this.mEncodeKeys = options.isEncode() && !options.isEncodeValuesOnly();
+    }
+
+    StringifyOptions getOptions() {
+        return mOptions;
+    }
+
+    Appendable getOut() {
+        return mOut;
+    }
+
+    void start() throws IOException {
+        if (mOptions.isAddQueryPrefix()) {
+            mOut.append(QUERY_PREFIX);
+        }
+    }
+
+    void push(Object key) {
+        if (mDepth == mPrefixLengths.length) {
+            mPrefixLengths = Arrays.copyOf(mPrefixLengths, mDepth * 2);
+        }
+        mPrefixLengths[mDepth] = mPrefix.length();
+        try {
+            appendPath(mPrefix, key, false);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        mDepth++;
+    }
+
+    void pop() {
+        mPrefix.setLength(mPrefixLengths[--mDepth]);
+    }
+
+    /**
+     * value 为 null 时按 skipNulls、strictNullHandling 处理
+     */
+    void value(Object key, CharSequence value) throws IOException {
+        if (value != null) {
+            writePath(key);
+            mOut.append(EQUAL);
+            if (mOptions.isEncode()) {
+                QSEncoder.encode(value, mOut);
+            } else {
+                mOut.append(value);
+            }
+        } else if (!mOptions.isSkipNulls()) {
+            writePath(key);
+            if (!mOptions.isStrictNullHandling()) {
+                mOut.append(EQUAL);
+            }
+        }
+    }
+
+    /**
+     * {@link ArrayFormat#COMMA} 数组：输出 key=，随后由 {@link #commaItem} 逐个输出元素（不编码）
+     */
+    void commaStart(Object key) throws IOException {
+        writePath(key);
+        mOut.append(EQUAL);
+    }
+
+    void commaItem(int index, CharSequence value) throws IOException {
+        if (index > 0) mOut.append(COMMA);
+        if (value != null) {
+            mOut.append(value);
+        }
+    }
+
+    /**
+     * 输出当前前缀加上最后一个 path key，不输出定界符和 '='
+     */
+    void path(Appendable out, Object key) throws IOException {
+        out.append(mPrefix);
+        appendPath(out, key, true);
+    }
+
+    private void writePath(Object key) throws IOException {
+        if (mFirst) {
+            mFirst = false;
+        } else {
+            mOut.append(mOptions.getDelimiter());
+        }
+        mOut.append(mPrefix);
+        appendPath(mOut, key, true);
+    }
+
+    /**
+     * 第一个 path 原样输出；allowDots 时以 '.' 连接；否则最后一个 path 按 ArrayFormat 渲染，
+     * 中间的 path 只有 BRACKETS 下的下标渲染为 '[]'
+     */
+    private void appendPath(Appendable out, Object key, boolean last) throws IOException {
+        if (mDepth == 0) {
+            appendKey(out, key);
+            return;
+        }
+        if (mOptions.isAllowDots()) {
+            out.append(DOT);
+            appendKey(out, key);
+            return;
+        }
+        if (key instanceof Integer) {
+            if (mArrayFormat == ArrayFormat.BRACKETS) {
+                appendSquare(out, LEFT_SQUARE);
+                appendSquare(out, RIGHT_SQUARE);
+                return;
+            }
+            if (last && mArrayFormat == ArrayFormat.REPEAT) {
+                return;
+            }
+        }
+        appendSquare(out, LEFT_SQUARE);
+        appendKey(out, key);
+        appendSquare(out, RIGHT_SQUARE);
+    }
+
+    private void appendSquare(Appendable out, char square) throws IOException {
+        if (mEncodeKeys) {
+            out.append(square == LEFT_SQUARE ? ENCODED_LEFT_SQUARE : ENCODED_RIGHT_SQUARE);
+        } else {
+            out.append(square);
+        }
+    }
+
+    private void appendKey(Appendable out, Object key) throws IOException {
+        String name = String.valueOf(key);
+        if (!mEncodeKeys || key instanceof Integer || !QSEncoder.needEncode(name)) {
+            out.append(name);
+            return;
+        }
+        if (mEncodedKeys == null) {
+            mEncodedKeys = new HashMap<>();
+        }
+        String encoded = mEncodedKeys.get(name);
+        if (encoded == null) {
+            encoded = QSEncoder.encode(name);
+            mEncodedKeys.put(name, encoded);
+        }
+        out.append(encoded);
+    }
+}
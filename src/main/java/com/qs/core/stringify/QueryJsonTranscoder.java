@@ -0,0 +1,427 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.ParseOptions;
+import com.qs.core.parser.ParseException;
+import com.qs.core.parser.PathParser;
+import com.qs.core.parser.QSIndex;
+import com.qs.core.util.NumberUtil;
+import com.qs.core.util.QSDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将 query string 直接转为 JSON，嵌套与合并规则与 {@link com.qs.core.parser.QSParser} 一致。
+ * <p>
+ * 不构建 QSObject：每个对象、数组和 value 只占用一个 slot（一组平行数组中的下标），
+ * 对象只保留 key 到子节点 slot 的映射，用于合并重复 key 和嵌套 path；
+ * value 只记录在原始输入中的区间，输出时不需要解码的 value 直接从原始输入写出，不创建 String。
+ */
+public final class QueryJsonTranscoder {
+
+    private static final int KIND_OBJECT = 0;
+    private static final int KIND_ARRAY = 1;
+    // 原始输入中的 [start, end)
+    private static final int KIND_SPAN = 2;
+    // 已解码的 value：comma 拆分后的元素或空字符串
+    private static final int KIND_STRING = 3;
+    private static final int KIND_NULL = 4;
+
+    private static final int ROOT = 0;
+    // 对象的 key 超过该数量时建立 key 到下标的 HashMap，否则顺序查找
+    private static final int LOOKUP_THRESHOLD = 8;
+    private static final String NULL = "null";
+    private static final String EMPTY_STRING = "";
+    private static final String WRAP_DEFAULT_PATH = "0";
+    private static final char CHAR_DOT = '.';
+    private static final String REGEX_FIRST_DOT = "^\\.+";
+    private static final String REGEX_DOT = "\\.+";
+    private static final String CHAR_COMMA = ",";
+
+    private final String mSource;
+    private final ParseOptions mOptions;
+
+    private int mCount;
+    private int[] mKinds = new int[16];
+    private int[] mStarts = new int[16];
+    private int[] mEnds = new int[16];
+    private String[] mStrings = new String[16];
+    // 容器的子节点 slot 和数量，对象的 key 与子节点按下标对应
+    private int[][] mChildren = new int[16][];
+    private int[] mSizes = new int[16];
+    private String[][] mKeys = new String[16][];
+    private Object[] mLookups = new Object[16];
+
+    private QueryJsonTranscoder(String s, ParseOptions options) {
+        this.mSource = s;
+        this.mOptions = options;
+        newNode(KIND_OBJECT);
+    }
+
+    public static String toJsonString(String s, ParseOptions options) throws ParseException {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        try {
+            toJson(s, options, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    public static byte[] toJsonBytes(String s, ParseOptions options) throws ParseException {
+        Utf8Output.ArrayOutput out = Utf8Output.of(s.length() + 16);
+        try {
+            toJson(s, options, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void toJson(String s, ParseOptions options, Appendable out) throws IOException, ParseException {
+        QueryJsonTranscoder transcoder = new QueryJsonTranscoder(s, options);
+        transcoder.index();
+        transcoder.write(new JsonWriter(out), out, ROOT);
+    }
+
+    public static void toJson(String s, ParseOptions options, OutputStream out) throws IOException, ParseException {
+        Utf8Output output = Utf8Output.of(out);
+        toJson(s, options, output);
+        output.finish();
+    }
+
+    private void index() throws ParseException {
+        QSIndex index = new QSIndex().index(mSource, mOptions);
+        for (int i = 0, size = index.size(); i < size; i++) {
+            int position = index.keyStart(i);
+            List<String> path = path(QSDecoder.decode(mSource, position, index.keyEnd(i)), position);
+            put(position, path, value(index, i));
+        }
+    }
+
+    private List<String> path(String key, int position) throws ParseException {
+        List<String> segments = PathParser.parse(key, position);
+        List<String> path = new ArrayList<>(segments.size() + 2);
+        for (String segment : segments) {
+            if (mOptions.isAllowDots() && segment.length() > 1 && segment.indexOf(CHAR_DOT) != -1) {
+                path.addAll(Arrays.asList(segment.replaceAll(REGEX_FIRST_DOT, "").split(REGEX_DOT)));
+            } else {
+                path.add(segment);
+            }
+        }
+        // 超出 depth 的部分合并为一个字面 key
+        int depth = mOptions.getDepth();
+        int size = path.size();
+        if (size - 1 > depth) {
+            StringBuilder mergePath = new StringBuilder();
+            for (int i = depth + 1; i < size; i++) {
+                mergePath.append("[").append(path.get(i)).append("]");
+            }
+            path.subList(depth + 1, size).clear();
+            path.add(mergePath.toString());
+        }
+        return path;
+    }
+
+    /**
+     * comma 拆分出多个 value 时返回数组
+     */
+    private int value(QSIndex index, int i) {
+        if (!index.hasValue(i)) {
+            return mOptions.isStrictNullHandling() ? newNode(KIND_NULL) : newString(EMPTY_STRING);
+        }
+        int start = index.valueStart(i);
+        int end = index.valueEnd(i);
+        if (!mOptions.isComma() && start < end) {
+            int slot = newNode(KIND_SPAN);
+            mStarts[slot] = start;
+            mEnds[slot] = end;
+            return slot;
+        }
+        String decodeValue = QSDecoder.decode(mSource, start, end);
+        if (!mOptions.isComma() || !decodeValue.contains(CHAR_COMMA)) return newString(decodeValue);
+        int array = newNode(KIND_ARRAY);
+        for (String item : decodeValue.split(CHAR_COMMA, -1)) {
+            add(array, newString(item));
+        }
+        return array;
+    }
+
+    /**
+     * 与 ParserHandler#put 的分支一一对应
+     */
+    private void put(int position, List<String> path, int value) throws ParseException {
+        int parent = -1;
+        String parentPath = null;
+        int current = ROOT;
+        int length = path.size();
+        for (int i = 0; i < length - 1; i++) {
+            String segment = path.get(i);
+            int child;
+            if (mKinds[current] == KIND_OBJECT) {
+                String key = wrapPathValue(segment);
+                child = get(current, key);
+                if (child == -1 || mKinds[child] == KIND_NULL) { // 与 QSParser 一致，null value 视为不存在
+                    child = newContainer(path.get(i + 1));
+                    put(current, key, child);
+                }
+            } else if (isArrayIndex(segment)) {
+                requireArray(current);
+                if (segment.isEmpty()) {
+                    child = newContainer(path.get(i + 1));
+                    add(current, child);
+                } else {
+                    int pathIndex = Integer.parseInt(segment);
+                    if (pathIndex == mSizes[current]) {
+                        child = newContainer(path.get(i + 1));
+                        add(current, child);
+                    } else if (pathIndex < mSizes[current]) {
+                        child = mChildren[current][pathIndex];
+                    } else {
+                        throw new ParseException(position, ParseException.ERROR_SKIP_ADD_EXCEPTION, path);
+                    }
+                }
+            } else {
+                int object = arrayToObject(current);
+                child = newContainer(path.get(i + 1));
+                put(object, wrapPathValue(segment), child);
+                connectToParent(parent, parentPath, object);
+            }
+            parentPath = segment;
+            parent = current;
+            current = child;
+        }
+
+        String lastPath = String.valueOf(length == 0 ? null : path.get(length - 1));
+        if (mKinds[current] == KIND_OBJECT) {
+            String key = wrapPathValue(lastPath);
+            int exist = get(current, key);
+            if (exist == -1) {
+                put(current, key, value);
+            } else if (mKinds[exist] == KIND_ARRAY) {
+                if (mKinds[value] == KIND_ARRAY) {
+                    addAll(exist, value);
+                } else {
+                    add(exist, value);
+                }
+            } else {
+                put(current, key, newArray(exist, value));
+            }
+        } else if (isArrayIndex(lastPath)) {
+            requireArray(current);
+            if (lastPath.isEmpty()) {
+                add(current, value);
+            } else {
+                int pathIndex = Integer.parseInt(lastPath);
+                if (pathIndex == mSizes[current]) {
+                    add(current, value);
+                } else if (pathIndex < mSizes[current]) {
+                    int exist = mChildren[current][pathIndex];
+                    if (mKinds[exist] == KIND_ARRAY) {
+                        add(exist, value);
+                    } else {
+                        mChildren[current][pathIndex] = newArray(exist, value);
+                    }
+                } else {
+                    throw new ParseException(position, ParseException.ERROR_SKIP_ADD_EXCEPTION, path);
+                }
+            }
+        } else {
+            String key = wrapPathValue(lastPath);
+            if (mKinds[current] == KIND_ARRAY) {
+                int object = arrayToObject(current);
+                put(object, key, value);
+                connectToParent(parent, parentPath, object);
+            } else {
+                int object = newNode(KIND_OBJECT);
+                put(object, key, value);
+                connectToParent(parent, parentPath, newArray(current, object));
+            }
+        }
+    }
+
+    private void connectToParent(int parent, String parentPath, int link) {
+        if (mKinds[parent] == KIND_OBJECT) {
+            put(parent, parentPath, link);
+        } else {
+            int index = Integer.parseInt(parentPath);
+            if (index >= mSizes[parent]) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSizes[parent]);
+            mChildren[parent][index] = link;
+        }
+    }
+
+    private int arrayToObject(int array) {
+        requireArray(array);
+        int object = newNode(KIND_OBJECT);
+        for (int i = 0, size = mSizes[array]; i < size; i++) {
+            put(object, String.valueOf(i), mChildren[array][i]);
+        }
+        return object;
+    }
+
+    /**
+     * 把 value 当作数组继续写入时，与 QSParser 一致抛出 NullPointerException 或 ClassCastException
+     */
+    private void requireArray(int slot) {
+        if (mKinds[slot] == KIND_NULL) {
+            throw new NullPointerException("value at " + slot + " is null");
+        }
+        if (mKinds[slot] != KIND_ARRAY) {
+            throw new ClassCastException("value at " + slot + " is not an array");
+        }
+    }
+
+    private String wrapPathValue(String value) {
+        if (value.isEmpty() && !mOptions.isParseArrays()) {
+            return WRAP_DEFAULT_PATH;
+        }
+        return value;
+    }
+
+    private boolean isArrayIndex(String value) {
+        return (value.isEmpty() || NumberUtil.isNaturalNumber(value)) && mOptions.isParseArrays();
+    }
+
+    private int newContainer(String nextPath) {
+        return newNode(isArrayIndex(nextPath) ? KIND_ARRAY : KIND_OBJECT);
+    }
+
+    private int newArray(int first, int second) {
+        int array = newNode(KIND_ARRAY);
+        add(array, first);
+        add(array, second);
+        return array;
+    }
+
+    private int newString(String value) {
+        int slot = newNode(KIND_STRING);
+        mStrings[slot] = value;
+        return slot;
+    }
+
+    private int newNode(int kind) {
+        if (mCount == mKinds.length) {
+            int capacity = mCount * 2;
+            mKinds = Arrays.copyOf(mKinds, capacity);
+            mStarts = Arrays.copyOf(mStarts, capacity);
+            mEnds = Arrays.copyOf(mEnds, capacity);
+            mStrings = Arrays.copyOf(mStrings, capacity);
+            mChildren = Arrays.copyOf(mChildren, capacity);
+            mSizes = Arrays.copyOf(mSizes, capacity);
+            mKeys = Arrays.copyOf(mKeys, capacity);
+            mLookups = Arrays.copyOf(mLookups, capacity);
+        }
+        mKinds[mCount] = kind;
+        return mCount++;
+    }
+
+    private int get(int object, String key) {
+        int i = indexOf(object, key);
+        return i == -1 ? -1 : mChildren[object][i];
+    }
+
+    /**
+     * 已存在的 key 保持原来的位置，与 LinkedHashMap 一致
+     */
+    private void put(int object, String key, int child) {
+        int i = indexOf(object, key);
+        if (i != -1) {
+            mChildren[object][i] = child;
+            return;
+        }
+        int size = mSizes[object];
+        add(object, child);
+        String[] keys = mKeys[object];
+        if (keys == null) {
+            keys = mKeys[object] = new String[mChildren[object].length];
+        } else if (keys.length < mChildren[object].length) {
+            keys = mKeys[object] = Arrays.copyOf(keys, mChildren[object].length);
+        }
+        keys[size] = key;
+        Map<String, Integer> lookup = lookup(object);
+        if (lookup != null) {
+            lookup.put(key, size);
+        } else if (size + 1 > LOOKUP_THRESHOLD) {
+            lookup = new HashMap<>();
+            for (int j = 0; j <= size; j++) {
+                lookup.put(keys[j], j);
+            }
+            mLookups[object] = lookup;
+        }
+    }
+
+    private int indexOf(int object, String key) {
+        Map<String, Integer> lookup = lookup(object);
+        if (lookup != null) {
+            Integer i = lookup.get(key);
+            return i == null ? -1 : i;
+        }
+        String[] keys = mKeys[object];
+        for (int i = 0, size = mSizes[object]; i < size; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> lookup(int object) {
+        return (Map<String, Integer>) mLookups[object];
+    }
+
+    private void add(int container, int child) {
+        int[] children = mChildren[container];
+        int size = mSizes[container];
+        if (children == null) {
+            children = mChildren[container] = new int[4];
+        } else if (size == children.length) {
+            children = mChildren[container] = Arrays.copyOf(children, size * 2);
+        }
+        children[size] = child;
+        mSizes[container] = size + 1;
+    }
+
+    private void addAll(int container, int array) {
+        for (int i = 0, size = mSizes[array]; i < size; i++) {
+            add(container, mChildren[array][i]);
+        }
+    }
+
+    private void write(JsonWriter writer, Appendable out, int slot) throws IOException {
+        switch (mKinds[slot]) {
+            case KIND_OBJECT: {
+                out.append('{');
+                for (int i = 0, size = mSizes[slot]; i < size; i++) {
+                    if (i > 0) out.append(',');
+                    writer.writeString(mKeys[slot][i]);
+                    out.append(':');
+                    write(writer, out, mChildren[slot][i]);
+                }
+                out.append('}');
+                break;
+            }
+            case KIND_ARRAY: {
+                out.append('[');
+                for (int i = 0, size = mSizes[slot]; i < size; i++) {
+                    if (i > 0) out.append(',');
+                    write(writer, out, mChildren[slot][i]);
+                }
+                out.append(']');
+                break;
+            }
+            case KIND_SPAN:
+                writer.writeRawValue(mSource, mStarts[slot], mEnds[slot]);
+                break;
+            case KIND_STRING:
+                writer.writeString(mStrings[slot]);
+                break;
+            default:
+                out.append(NULL);
+                break;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.StringifyOptions;
+import com.qs.core.parser.ParseException;
+import com.qs.core.parser.PathParser;
+import com.qs.core.util.NumberUtil;
+import com.qs.core.util.QSEncoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 固定结构的 query string 模板，例如 'q={}&page[size]={size}&fields[]={}'。
+ * <p>
+ * 编译时按 {@link StringifyOptions} 把所有 key 渲染并编码为字面量，渲染时只编码 value，
+ * 输出与把同样的值放入 QSObject 后调用 {@link Stringifier#toQString} 一致。
+ * 模板中的 key 不做解码；value 为 '{}'（按位置）或 '{name}'（按名称）时为占位符，其余 value 为固定值。
+ * 占位符的值为 Iterable 或数组时按数组输出，key 以 '[]' 结尾时单个值也按数组输出。
+ * 编译后只读，可在多线程中共享。
+ */
+public final class QueryTemplate {
+
+    private static final char CHAR_AND = '&';
+    private static final char CHAR_EQUAL = '=';
+    private static final String QUERY_PREFIX = "?";
+    private static final String PLACEHOLDER_START = "{";
+    private static final String PLACEHOLDER_END = "}";
+    private static final String CHAR_DOT = ".";
+    private static final String REGEX_DOT = "\\.+";
+    private static final char COMMA = ',';
+
+    private final StringifyOptions mOptions;
+    private final Part[] mParts;
+    // 按出现顺序的占位符名称，'{}' 为 null
+    private final String[] mNames;
+
+    private QueryTemplate(StringifyOptions options, Part[] parts, String[] names) {
+        this.mOptions = options;
+        this.mParts = parts;
+        this.mNames = names;
+    }
+
+    public static QueryTemplate compile(String shape) {
+        return compile(shape, new StringifyOptions.Builder().build());
+    }
+
+    /**
+     * 模板格式错误时抛出 IllegalArgumentException
+     */
+    public static QueryTemplate compile(String shape, StringifyOptions options) {
+        if (shape.startsWith(QUERY_PREFIX)) shape = shape.substring(1);
+        List<Part> parts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        while (start <= shape.length()) {
+            int end = shape.indexOf(CHAR_AND, start);
+            if (end == -1) end = shape.length();
+            if (end > start) {
+                parts.add(compilePart(shape, start, end, options, names));
+            }
+            start = end + 1;
+        }
+        return new QueryTemplate(options, parts.toArray(new Part[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * 占位符个数
+     */
+    public int size() {
+        return mNames.length;
+    }
+
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(mNames.length);
+        Collections.addAll(names, mNames);
+        return Collections.unmodifiableList(names);
+    }
+
+    public String render(Object... values) {
+        StringBuilder sb = new StringBuilder(64);
+        render(sb, values);
+        return sb.toString();
+    }
+
+    /**
+     * 按占位符出现的顺序取值，追加到 sb 中
+     */
+    public void render(StringBuilder sb, Object... values) {
+        if (values.length != mNames.length) {
+            throw new IllegalArgumentException("expected " + mNames.length + " values but got " + values.length);
+        }
+        if (mOptions.isAddQueryPrefix()) sb.append(QUERY_PREFIX);
+        int start = sb.length();
+        for (Part part : mParts) {
+            part.render(sb, start, part.mPlaceholder < 0 ? null : values[part.mPlaceholder], mOptions);
+        }
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder sb = new StringBuilder(64);
+        render(sb, values);
+        return sb.toString();
+    }
+
+    /**
+     * 按占位符名称取值，不存在的名称视为 null；模板中不能有 '{}'
+     */
+    public void render(StringBuilder sb, Map<String, ?> values) {
+        if (mOptions.isAddQueryPrefix()) sb.append(QUERY_PREFIX);
+        int start = sb.length();
+        for (Part part : mParts) {
+            Object value = null;
+            if (part.mPlaceholder >= 0) {
+                String name = mNames[part.mPlaceholder];
+                if (name == null) throw new IllegalArgumentException("positional placeholder can't be rendered by name");
+                value = values.get(name);
+            }
+            part.render(sb, start, value, mOptions);
+        }
+    }
+
+    private static Part compilePart(String shape, int start, int end, StringifyOptions options, List<String> names) {
+        int indexEqual = shape.indexOf(CHAR_EQUAL, start);
+        boolean hasValue = indexEqual != -1 && indexEqual < end;
+        String key = shape.substring(start, hasValue ? indexEqual : end);
+        String value = hasValue ? shape.substring(indexEqual + 1, end) : null;
+        List<Object> segments = segments(key, start, options);
+        try {
+            if (value != null && value.startsWith(PLACEHOLDER_START) && value.endsWith(PLACEHOLDER_END)) {
+                String name = value.substring(1, value.length() - 1);
+                names.add(name.isEmpty() ? null : name);
+                return Part.placeholder(names.size() - 1, segments, options);
+            }
+            return Part.literal(segments, value, options);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 与解析规则一致地拆分 path；下标转为 Integer，中间的 '[]' 视为下标 0，结尾的 '[]' 保留为空字符串
+     */
+    private static List<Object> segments(String key, int position, StringifyOptions options) {
+        List<String> pathArray;
+        try {
+            pathArray = PathParser.parse(key, position);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        List<Object> segments = new ArrayList<>(pathArray.size() + 2);
+        for (String path : pathArray) {
+            if (options.isAllowDots() && path.length() > 1 && path.contains(CHAR_DOT)) {
+                for (String dotPath : path.split(REGEX_DOT)) {
+                    if (!dotPath.isEmpty()) segments.add(dotPath);
+                }
+            } else {
+                segments.add(path);
+            }
+        }
+        for (int i = 1; i < segments.size(); i++) {
+            String path = (String) segments.get(i);
+            if (NumberUtil.isNaturalNumber(path)) {
+                segments.set(i, Integer.valueOf(path));
+            } else if (path.isEmpty() && i < segments.size() - 1) {
+                segments.set(i, 0);
+            }
+        }
+        return segments;
+    }
+
+    private static final class Part {
+        // 固定的 key=value，已完整渲染
+        final String mLiteral;
+        final int mPlaceholder;
+        final boolean mArrayKey;
+        // 单个值时的 path
+        final String mPath;
+        // 数组元素的 path 为 mElementLeft + 下标 + mElementRight，不含下标时 mElementRight 为 null
+        final String mElementLeft;
+        final String mElementRight;
+        // COMMA 数组的 path
+        final String mCommaPath;
+
+        private Part(String literal, int placeholder, boolean arrayKey, String path,
+                     String elementLeft, String elementRight, String commaPath) {
+            this.mLiteral = literal;
+            this.mPlaceholder = placeholder;
+            this.mArrayKey = arrayKey;
+            this.mPath = path;
+            this.mElementLeft = elementLeft;
+            this.mElementRight = elementRight;
+            this.mCommaPath = commaPath;
+        }
+
+        static Part literal(List<Object> segments, String value, StringifyOptions options) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            QueryEmitter emitter = new QueryEmitter(sb, options);
+            int last = segments.size() - 1;
+            for (int i = 0; i < last; i++) {
+                emitter.push(segments.get(i));
+            }
+            emitter.value(segments.get(last), value);
+            return new Part(sb.toString(), -1, false, null, null, null, null);
+        }
+
+        static Part placeholder(int placeholder, List<Object> segments, StringifyOptions options) throws IOException {
+            int last = segments.size() - 1;
+            boolean arrayKey = last > 0 && "".equals(segments.get(last));
+            List<Object> container = arrayKey ? segments.subList(0, last) : segments;
+            String path = arrayKey ? null : path(segments.subList(0, last), segments.get(last), options);
+            String commaPath = path(container.subList(0, container.size() - 1), container.get(container.size() - 1), options);
+            String first = path(container, 0, options);
+            String second = path(container, 1, options);
+            String elementLeft = first;
+            String elementRight = null;
+            if (!first.equals(second)) {
+                int index = 0;
+                while (first.charAt(index) == second.charAt(index)) index++;
+                elementLeft = first.substring(0, index);
+                elementRight = first.substring(index + 1);
+            }
+            return new Part(null, placeholder, arrayKey, path, elementLeft, elementRight, commaPath);
+        }
+
+        private static String path(List<Object> prefix, Object key, StringifyOptions options) throws IOException {
+            QueryEmitter emitter = new QueryEmitter(null, options);
+            for (Object segment : prefix) {
+                emitter.push(segment);
+            }
+            StringBuilder sb = new StringBuilder();
+            emitter.path(sb, key);
+            return sb.toString();
+        }
+
+        void render(StringBuilder sb, int start, Object value, StringifyOptions options) {
+            if (mLiteral != null) {
+                if (!mLiteral.isEmpty()) {
+                    delimiter(sb, start, options);
+                    sb.append(mLiteral);
+                }
+                return;
+            }
+            if (value instanceof Object[]) {
+                Object[] items = (Object[]) value;
+                startArray(sb, start, options);
+                for (int i = 0; i < items.length; i++) {
+                    renderElement(sb, start, i, items[i], options);
+                }
+            } else if (value instanceof Iterable) {
+                startArray(sb, start, options);
+                int i = 0;
+                for (Object item : (Iterable<?>) value) {
+                    renderElement(sb, start, i++, item, options);
+                }
+            } else if (value != null && value.getClass().isArray()) {
+                startArray(sb, start, options);
+                renderPrimitiveArray(sb, start, value, options);
+            } else if (mArrayKey) {
+                startArray(sb, start, options);
+                renderElement(sb, start, 0, value, options);
+            } else {
+                renderValue(sb, start, mPath, -1, null, value, options);
+            }
+        }
+
+        /**
+         * 基本类型数组逐个元素直接输出，不装箱；数字和 boolean 不含需要编码的字符
+         */
+        private void renderPrimitiveArray(StringBuilder sb, int start, Object value, StringifyOptions options) {
+            if (value instanceof int[]) {
+                int[] items = (int[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof long[]) {
+                long[] items = (long[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof double[]) {
+                double[] items = (double[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof float[]) {
+                float[] items = (float[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof short[]) {
+                short[] items = (short[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof byte[]) {
+                byte[] items = (byte[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else if (value instanceof boolean[]) {
+                boolean[] items = (boolean[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    sb.append(items[i]);
+                }
+            } else {
+                char[] items = (char[]) value;
+                for (int i = 0; i < items.length; i++) {
+                    elementPrefix(sb, start, i, options);
+                    if (options.isEncode() && options.getArrayFormat() != ArrayFormat.COMMA) {
+                        QSEncoder.encode(String.valueOf(items[i]), sb);
+                    } else {
+                        sb.append(items[i]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * COMMA 格式下整个数组只有一个 path
+         */
+        private void startArray(StringBuilder sb, int start, StringifyOptions options) {
+            if (options.getArrayFormat() == ArrayFormat.COMMA) {
+                delimiter(sb, start, options);
+                sb.append(mCommaPath).append(CHAR_EQUAL);
+            }
+        }
+
+        private void renderElement(StringBuilder sb, int start, int i, Object item, StringifyOptions options) {
+            if (options.getArrayFormat() == ArrayFormat.COMMA) {
+                if (i > 0) sb.append(COMMA);
+                if (item != null) sb.append(item);
+            } else {
+                renderValue(sb, start, mElementLeft, mElementRight == null ? -1 : i, mElementRight, item, options);
+            }
+        }
+
+        /**
+         * 非 null 元素的 path 和 =，COMMA 格式下只输出分隔的逗号
+         */
+        private void elementPrefix(StringBuilder sb, int start, int i, StringifyOptions options) {
+            if (options.getArrayFormat() == ArrayFormat.COMMA) {
+                if (i > 0) sb.append(COMMA);
+                return;
+            }
+            delimiter(sb, start, options);
+            sb.append(mElementLeft);
+            if (mElementRight != null) sb.append(i).append(mElementRight);
+            sb.append(CHAR_EQUAL);
+        }
+
+        /**
+         * index 为 -1 时 path 不含下标
+         */
+        private static void renderValue(StringBuilder sb, int start, String path, int index, String pathEnd,
+                                        Object value, StringifyOptions options) {
+            if (value == null && options.isSkipNulls()) return;
+            delimiter(sb, start, options);
+            sb.append(path);
+            if (index >= 0) sb.append(index).append(pathEnd);
+            if (value == null) {
+                if (!options.isStrictNullHandling()) sb.append(CHAR_EQUAL);
+                return;
+            }
+            sb.append(CHAR_EQUAL);
+            if (options.isEncode()) {
+                QSEncoder.encode(String.valueOf(value), sb);
+            } else {
+                sb.append(value);
+            }
+        }
+
+        private static void delimiter(StringBuilder sb, int start, StringifyOptions options) {
+            if (sb.length() > start) sb.append(options.getDelimiter());
+        }
+    }
+}
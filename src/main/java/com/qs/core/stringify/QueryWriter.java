@@ -0,0 +1,158 @@
+package com.qs.core.stringify;
+
+import com.qs.core.model.ArrayFormat;
+import com.qs.core.model.StringifyOptions;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 不构建 QSObject，直接把 key=value 写入 StringBuilder：
+ * <pre>
+ * QueryWriter.begin(sb).put("a", "b").object("filter").array("ids").add(1).add(2).end().end();
+ * </pre>
+ * object/array 打开一个新的层级，end 关闭最内层。输出与把同样的内容放入 QSObject 后调用
+ * {@link Stringifier#toQString} 一致。{@link ArrayFormat#COMMA} 数组中只能添加单个值。
+ */
+public final class QueryWriter {
+
+    private static final int SCOPE_OBJECT = 0;
+    private static final int SCOPE_ARRAY = 1;
+    private static final int SCOPE_COMMA_ARRAY = 2;
+
+    private final QueryEmitter mEmitter;
+    private int[] mScopes = new int[8];
+    // 每个数组层级下一个元素的下标
+    private int[] mIndexes = new int[8];
+    private int mDepth;
+
+    private QueryWriter(StringBuilder sb, StringifyOptions options) {
+        this.mEmitter = new QueryEmitter(sb, options);
+        this.mScopes[0] = SCOPE_OBJECT;
+    }
+
+    public static QueryWriter begin(StringBuilder sb) {
+        return begin(sb, new StringifyOptions.Builder().build());
+    }
+
+    public static QueryWriter begin(StringBuilder sb, StringifyOptions options) {
+        QueryWriter writer = new QueryWriter(sb, options);
+        try {
+            writer.mEmitter.start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer;
+    }
+
+    /**
+     * value 可以是 QSObject 或 QSArray，其余按 String.valueOf 输出
+     */
+    public QueryWriter put(String key, Object value) {
+        checkScope(SCOPE_OBJECT);
+        writeValue(key, value);
+        return this;
+    }
+
+    public QueryWriter add(Object value) {
+        if (scope() == SCOPE_COMMA_ARRAY) {
+            try {
+                mEmitter.commaItem(mIndexes[mDepth]++, value == null ? null : String.valueOf(value));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+        checkScope(SCOPE_ARRAY);
+        writeValue(mIndexes[mDepth]++, value);
+        return this;
+    }
+
+    public QueryWriter object(String key) {
+        checkScope(SCOPE_OBJECT);
+        return open(key, SCOPE_OBJECT);
+    }
+
+    /**
+     * 在当前数组中添加一个对象元素
+     */
+    public QueryWriter object() {
+        checkScope(SCOPE_ARRAY);
+        return open(mIndexes[mDepth]++, SCOPE_OBJECT);
+    }
+
+    public QueryWriter array(String key) {
+        checkScope(SCOPE_OBJECT);
+        return openArray(key);
+    }
+
+    /**
+     * 在当前数组中添加一个数组元素
+     */
+    public QueryWriter array() {
+        checkScope(SCOPE_ARRAY);
+        return openArray(mIndexes[mDepth]++);
+    }
+
+    /**
+     * 关闭最内层的 object 或 array
+     */
+    public QueryWriter end() {
+        if (mDepth == 0) throw new IllegalStateException("no open object or array");
+        if (mScopes[mDepth] != SCOPE_COMMA_ARRAY) {
+            mEmitter.pop();
+        }
+        mDepth--;
+        return this;
+    }
+
+    private QueryWriter openArray(Object key) {
+        if (mEmitter.getOptions().getArrayFormat() == ArrayFormat.COMMA) {
+            try {
+                mEmitter.commaStart(key);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            enter(SCOPE_COMMA_ARRAY);
+            return this;
+        }
+        return open(key, SCOPE_ARRAY);
+    }
+
+    private QueryWriter open(Object key, int scope) {
+        mEmitter.push(key);
+        enter(scope);
+        return this;
+    }
+
+    private void enter(int scope) {
+        mDepth++;
+        if (mDepth == mScopes.length) {
+            mScopes = Arrays.copyOf(mScopes, mDepth * 2);
+            mIndexes = Arrays.copyOf(mIndexes, mDepth * 2);
+        }
+        mScopes[mDepth] = scope;
+        mIndexes[mDepth] = 0;
+    }
+
+    private void writeValue(Object key, Object value) {
+        try {
+            Stringifier.writeValue(mEmitter, key, value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int scope() {
+        return mScopes[mDepth];
+    }
+
+    private void checkScope(int scope) {
+        if (scope() != scope) {
+            if (scope() == SCOPE_COMMA_ARRAY) {
+                throw new IllegalStateException("only values can be added to a COMMA array");
+            }
+            throw new IllegalStateException(scope == SCOPE_OBJECT ? "not in an object" : "not in an array");
+        }
+    }
+}
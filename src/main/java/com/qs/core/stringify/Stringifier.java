@@ -4,190 +4,180 @@ import com.qs.core.model.ArrayFormat;
 import com.qs.core.model.QSArray;
 import com.qs.core.model.QSObject;
 import com.qs.core.model.StringifyOptions;
-import com.qs.core.util.QSEncoder;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Map;
 
 public class Stringifier {
 
-    private static final String QUERY_PREFIX = "?";
-    private static final char LEFT_SQUARE = '[';
-    private static final char RIGHT_SQUARE = ']';
-    private static final char DOT = '.';
-
     public static String toQString(QSObject object) {
         return toQString(object, new StringifyOptions.Builder().build());
     }
 
     public static String toQString(QSObject object, StringifyOptions options) {
-        StringBuilder sb = new StringBuilder();
-        if (options.isAddQueryPrefix()) {
-            sb.append(QUERY_PREFIX);
-        }
-        sb.append(toQString(object, new ArrayList<>(), options));
+        StringBuilder sb = new StringBuilder(object.size() * 16);
+        toQString(object, options, sb);
         return sb.toString();
     }
 
-    private static String toQString(QSObject object, List<Object> pathStack, StringifyOptions options) {
-        if (pathStack == null) pathStack = new ArrayList<>();
-        StringBuilder sb = new StringBuilder(33);
-        for (Map.Entry<String, Object> entry : object.entrySet()) {
-            pathStack.add(entry.getKey());
-            toQString(entry.getValue(), sb, pathStack, options);
+    public static void toQString(QSObject object, StringifyOptions options, StringBuilder sb) {
+        try {
+            toQString(object, options, (Appendable) sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        if (sb.length() > 0) sb.deleteCharAt(sb.length() - 1);
-        return sb.toString();
     }
 
-    private static String toQString(QSArray array, List<Object> pathStack, StringifyOptions options) {
-        if (pathStack == null) pathStack = new ArrayList<>();
-        StringBuilder sb = new StringBuilder(33);
-        for (int i = 0, size = array.size(); i < size; ++i) {
-            pathStack.add(i);
-            toQString(array.get(i), sb, pathStack, options);
+    /**
+     * 所有层级直接写入同一个 out，只在编码时产生中间字符串
+     */
+    public static void toQString(QSObject object, StringifyOptions options, Appendable out) throws IOException {
+        QueryEmitter emitter = new QueryEmitter(out, options);
+        emitter.start();
+        writeObject(emitter, object);
+    }
+
+    /**
+     * 边生成边写出，内部只保留固定大小的缓冲
+     */
+    public static void writeQString(QSObject object, StringifyOptions options, Writer out) throws IOException {
+        writeQString(object, options, ChunkedOutput.of(out));
+    }
+
+    public static void writeQString(QSObject object, StringifyOptions options, OutputStream out) throws IOException {
+        writeQString(object, options, Utf8Output.of(out));
+    }
+
+    public static void writeQString(QSObject object, StringifyOptions options, WritableByteChannel out) throws IOException {
+        writeQString(object, options, Utf8Output.of(out));
+    }
+
+    private static void writeQString(QSObject object, StringifyOptions options, ChunkedOutput out) throws IOException {
+        toQString(object, options, out);
+        out.finish();
+    }
+
+    private static void writeQString(QSObject object, StringifyOptions options, Utf8Output out) throws IOException {
+        toQString(object, options, out);
+        out.finish();
+    }
+
+    /**
+     * 直接编码为 UTF-8 字节，不产生中间 String
+     */
+    public static byte[] toQBytes(QSObject object, StringifyOptions options) {
+        Utf8Output.ArrayOutput out = Utf8Output.of(object.size() * 16 + 16);
+        try {
+            writeQString(object, options, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        if (sb.length() > 0) sb.deleteCharAt(sb.length() - 1);
-        return sb.toString();
+        return out.toByteArray();
     }
 
-    private static void toQString(Object value, StringBuilder sb, List<Object> pathStack, StringifyOptions options) {
-        if (value instanceof QSArray) {
-            if (options.getArrayFormat() == ArrayFormat.COMMA) {
-                sb.append(toCommaQString((QSArray) value, pathStack, options));
-            } else {
-                sb.append(toQString((QSArray) value, pathStack, options));
-            }
-        } else if (value instanceof QSObject) {
-            sb.append(toQString((QSObject) value, pathStack, options));
-        } else {
-            if (value != null) {
-                sb.append(toPathString(pathStack, options));
-                sb.append('=');
-                if (options.isEncode()) {
-                    sb.append(QSEncoder.encode(String.valueOf(value)));
-                } else {
-                    sb.append(value);
-                }
-            } else {
-                if (!options.isSkipNulls()) {
-                    sb.append(toPathString(pathStack, options));
-                    if (!options.isStrictNullHandling()) {
-                        sb.append('=');
-                    }
-                }
-            }
+    /**
+     * 写入 out 当前 position 处，空间不足时抛出 {@link java.nio.BufferOverflowException}，此时 position 不变
+     */
+    public static void toQBytes(QSObject object, StringifyOptions options, ByteBuffer out) {
+        try {
+            writeQString(object, options, Utf8Output.of(out));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        pathStack.remove(pathStack.size() - 1);
-        if (value != null || !options.isSkipNulls()) {
-            if (value instanceof QSArray && ((QSArray) value).isEmpty()) return;
-            sb.append(options.getDelimiter());
+    }
+
+    /**
+     * 以 {@link StringifyOptions#CANONICAL} 形式计算 128 位 murmur3 hash，边生成边计算，不产生完整字符串
+     */
+    public static byte[] canonicalHash(QSObject object) {
+        HashOutput out = new HashOutput();
+        try {
+            writeQString(object, StringifyOptions.CANONICAL, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
+        return out.hash();
     }
 
-    private static String toCommaQString(QSArray array, List<Object> pathStack, StringifyOptions options) {
-        StringBuilder sb = new StringBuilder(33);
-        sb.append(toPathString(pathStack, options)).append("=");
-        for (int i = 0, size = array.size(); i < size; ++i) {
-            Object value = array.get(i);
-            if (value != null) {
-                sb.append(value);
+    private static void writeObject(QueryEmitter emitter, QSObject object) throws IOException {
+        Comparator<String> sort = emitter.getOptions().getSort();
+        if (sort != null && object.size() > 1) {
+            String[] keys = object.keySet().toArray(new String[0]);
+            Arrays.sort(keys, sort);
+            for (String key : keys) {
+                writeValue(emitter, key, object.get(key));
             }
-            sb.append(",");
+            return;
+        }
+        for (Map.Entry<String, Object> entry : object.entrySet()) {
+            writeValue(emitter, entry.getKey(), entry.getValue());
         }
-        if (sb.length() > 0) sb.deleteCharAt(sb.length() - 1);
-        return sb.toString();
     }
 
-    private static String toPathString(List<Object> pathStack, StringifyOptions options) {
-        StringBuilder sb = new StringBuilder(33);
-        int size = pathStack.size();
-        for (int i = 0; i < size; ++i) {
-            Object path = pathStack.get(i);
-            if (options.isAllowDots()) {
-                sb.append(path).append(DOT);
+    static void writeValue(QueryEmitter emitter, Object key, Object value) throws IOException {
+        if (value instanceof QSArray) {
+            QSArray array = (QSArray) value;
+            if (emitter.getOptions().getArrayFormat() == ArrayFormat.COMMA) {
+                emitter.commaStart(key);
+                for (int i = 0, size = array.size(); i < size; ++i) {
+                    Object item = array.get(i);
+                    emitter.commaItem(i, item == null ? null : String.valueOf(item));
+                }
             } else {
-                if (i == 0) {
-                    sb.append(path);
-                } else if (i == size - 1) { // 最后一个 path 的处理
-                    ArrayFormat format = options.getArrayFormat();
-                    if (format == ArrayFormat.INDICES) {
-                        sb.append(LEFT_SQUARE).append(path).append(RIGHT_SQUARE);
-                    } else if (format == ArrayFormat.BRACKETS) {
-                        if (isIntegerType(path)) {
-                            sb.append(LEFT_SQUARE).append(RIGHT_SQUARE);
-                        } else {
-                            sb.append(LEFT_SQUARE).append(path).append(RIGHT_SQUARE);
-                        }
-                    } else if (format == ArrayFormat.REPEAT) {
-                        if (!isIntegerType(path)) {
-                            sb.append(LEFT_SQUARE).append(path).append(RIGHT_SQUARE);
-                        }
-                    } else if (format == ArrayFormat.COMMA) {
-                        sb.append(LEFT_SQUARE).append(path).append(RIGHT_SQUARE);
-                    }
-                } else {
-                    ArrayFormat format = options.getArrayFormat();
-                    if (format == ArrayFormat.BRACKETS && isIntegerType(path)) {
-                        sb.append(LEFT_SQUARE).append(RIGHT_SQUARE);
-                    } else {
-                        sb.append(LEFT_SQUARE).append(path).append(RIGHT_SQUARE);
-                    }
+                emitter.push(key);
+                for (int i = 0, size = array.size(); i < size; ++i) {
+                    writeValue(emitter, i, array.get(i));
                 }
+                emitter.pop();
             }
+        } else if (value instanceof QSObject) {
+            emitter.push(key);
+            writeObject(emitter, (QSObject) value);
+            emitter.pop();
+        } else {
+            emitter.value(key, value == null ? null : String.valueOf(value));
         }
-        if (options.isAllowDots()) {
-            sb.deleteCharAt(sb.length() - 1);
-        }
-        if (options.isEncode() && !options.isEncodeValuesOnly()) {
-            return QSEncoder.encode(sb.toString());
+    }
+
+    public static String toJsonString(QSObject object) {
+        StringBuilder sb = new StringBuilder(object.size() * 16 + 2);
+        try {
+            toJsonString(object, sb);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
         return sb.toString();
     }
 
-    private static boolean isIntegerType(Object value) {
-        return value instanceof Integer;
+    public static void toJsonString(QSObject object, Appendable out) throws IOException {
+        new JsonWriter(out).write(object);
     }
 
-
-    public static String toJsonString(QSObject object) {
-        StringBuilder sb = new StringBuilder(33);
-        sb.append("{");
-        for (Map.Entry<String, Object> entry : object.entrySet()) {
-            sb.append("\"").append(entry.getKey()).append("\":");
-            toJsonString(entry.getValue(), sb);
+    public static byte[] toJsonBytes(QSObject object) {
+        Utf8Output.ArrayOutput out = Utf8Output.of(object.size() * 16 + 2);
+        try {
+            toJsonString(object, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        if (sb.length() > 1) sb.deleteCharAt(sb.length() - 1);
-        sb.append("}");
-        return sb.toString();
+        return out.toByteArray();
     }
 
-    private static String toJsonString(QSArray array) {
-        StringBuilder sb = new StringBuilder(33);
-        sb.append(LEFT_SQUARE);
-        for (Object value : array) {
-            toJsonString(value, sb);
-        }
-        if (sb.length() > 1) sb.deleteCharAt(sb.length() - 1);
-        sb.append(RIGHT_SQUARE);
-        return sb.toString();
+    public static void writeJsonString(QSObject object, Writer out) throws IOException {
+        ChunkedOutput output = ChunkedOutput.of(out);
+        toJsonString(object, output);
+        output.finish();
     }
 
-    private static void toJsonString(Object value, StringBuilder sb) {
-        if (value instanceof String) {
-            sb.append("\"").append((String) value).append("\"");
-        } else if (value instanceof QSArray) {
-            sb.append(toJsonString((QSArray) value));
-        } else if (value instanceof QSObject) {
-            sb.append(toJsonString((QSObject) value));
-        } else if (value instanceof Number || value instanceof Boolean) {
-            sb.append(value.toString());
-        } else if (value == null) {
-            sb.append("null");
-        } else {
-            sb.append("\"").append(value.toString()).append("\"");
-        }
-        sb.append(",");
+    public static void writeJsonString(QSObject object, OutputStream out) throws IOException {
+        Utf8Output output = Utf8Output.of(out);
+        toJsonString(object, output);
+        output.finish();
     }
 }
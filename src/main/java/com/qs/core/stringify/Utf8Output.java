@@ -0,0 +1,264 @@
+package com.qs.core.stringify;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * 直接以 UTF-8 字节输出的 Appendable。编码后的 query string 只有 ASCII 字符，每个 char 直接写为一个 byte；
+ * 不编码时的非 ASCII 字符按 UTF-8 写出，跨 append 调用的代理对也能正确合并
+ */
+abstract class Utf8Output implements Appendable {
+
+    private static final byte REPLACEMENT = '?';
+
+    byte[] mBytes;
+    int mCount;
+    // mBytes 中可写入的上限，写入 ByteBuffer 的底层数组时小于数组长度
+    int mLimit;
+    private char mHighSurrogate;
+
+    Utf8Output(int capacity) {
+        this(new byte[capacity], 0, capacity);
+    }
+
+    Utf8Output(byte[] bytes, int count, int limit) {
+        this.mBytes = bytes;
+        this.mCount = count;
+        this.mLimit = limit;
+    }
+
+    static ArrayOutput of(int capacity) {
+        return new ArrayOutput(capacity);
+    }
+
+    /**
+     * 有底层数组时直接写入，否则经由缓冲写入
+     */
+    static Utf8Output of(ByteBuffer out) {
+        if (out.hasArray()) return new HeapBufferOutput(out);
+        return new BufferOutput(out);
+    }
+
+    static Utf8Output of(OutputStream out) {
+        return new StreamOutput(out);
+    }
+
+    static Utf8Output of(WritableByteChannel out) {
+        return new ChannelOutput(out);
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            char ch = csq.charAt(i);
+            if (ch < 0x80 && mHighSurrogate == 0) {
+                if (mCount == mLimit) require(1);
+                mBytes[mCount++] = (byte) ch;
+            } else {
+                write(ch);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        if (c < 0x80 && mHighSurrogate == 0) {
+            if (mCount == mLimit) require(1);
+            mBytes[mCount++] = (byte) c;
+        } else {
+            write(c);
+        }
+        return this;
+    }
+
+    /**
+     * 输出剩余内容，不关闭也不 flush 下游
+     */
+    void finish() throws IOException {
+        if (mHighSurrogate != 0) {
+            mHighSurrogate = 0;
+            writeByte(REPLACEMENT);
+        }
+        drain();
+    }
+
+    /**
+     * 保证缓冲中至少还有 count 个字节的空间
+     */
+    abstract void require(int count) throws IOException;
+
+    abstract void drain() throws IOException;
+
+    private void write(char ch) throws IOException {
+        if (mHighSurrogate != 0) {
+            char high = mHighSurrogate;
+            mHighSurrogate = 0;
+            if (Character.isLowSurrogate(ch)) {
+                int codePoint = Character.toCodePoint(high, ch);
+                ensure(4);
+                mBytes[mCount++] = (byte) (0xF0 | (codePoint >> 18));
+                mBytes[mCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                mBytes[mCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                mBytes[mCount++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            writeByte(REPLACEMENT);
+        }
+        if (ch < 0x80) {
+            writeByte((byte) ch);
+        } else if (ch < 0x800) {
+            ensure(2);
+            mBytes[mCount++] = (byte) (0xC0 | (ch >> 6));
+            mBytes[mCount++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (Character.isHighSurrogate(ch)) {
+            mHighSurrogate = ch;
+        } else if (Character.isLowSurrogate(ch)) {
+            writeByte(REPLACEMENT);
+        } else {
+            ensure(3);
+            mBytes[mCount++] = (byte) (0xE0 | (ch >> 12));
+            mBytes[mCount++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            mBytes[mCount++] = (byte) (0x80 | (ch & 0x3F));
+        }
+    }
+
+    private void writeByte(byte b) throws IOException {
+        ensure(1);
+        mBytes[mCount++] = b;
+    }
+
+    private void ensure(int count) throws IOException {
+        if (mCount + count > mLimit) require(count);
+    }
+
+    static final class ArrayOutput extends Utf8Output {
+
+        ArrayOutput(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        void require(int count) {
+            mBytes = Arrays.copyOf(mBytes, Math.max(mBytes.length * 2, mCount + count));
+            mLimit = mBytes.length;
+        }
+
+        @Override
+        void drain() {
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(mBytes, mCount);
+        }
+    }
+
+    /**
+     * 直接编码到 ByteBuffer 的底层数组中，finish 时才移动 position；
+     * 空间不足时抛出 {@link BufferOverflowException}，position 不变
+     */
+    private static final class HeapBufferOutput extends Utf8Output {
+        private final ByteBuffer mOut;
+
+        HeapBufferOutput(ByteBuffer out) {
+            super(out.array(), out.arrayOffset() + out.position(), out.arrayOffset() + out.limit());
+            this.mOut = out;
+        }
+
+        @Override
+        void require(int count) {
+            throw new BufferOverflowException();
+        }
+
+        @Override
+        void drain() {
+            mOut.position(mCount - mOut.arrayOffset());
+        }
+    }
+
+    /**
+     * 没有底层数组的 ByteBuffer（如 direct buffer）经由不超过剩余空间的缓冲写入；
+     * 空间不足时恢复 position 并抛出 {@link BufferOverflowException}
+     */
+    private static final class BufferOutput extends Utf8Output {
+        private final ByteBuffer mOut;
+        private final int mStart;
+
+        BufferOutput(ByteBuffer out) {
+            // 至少能放下一个完整的 UTF-8 字符
+            super(Math.min(ChunkedOutput.BUFFER_SIZE, Math.max(4, out.remaining())));
+            this.mOut = out;
+            this.mStart = out.position();
+        }
+
+        @Override
+        void require(int count) {
+            drain();
+        }
+
+        @Override
+        void drain() {
+            if (mCount > mOut.remaining()) {
+                mOut.position(mStart);
+                throw new BufferOverflowException();
+            }
+            mOut.put(mBytes, 0, mCount);
+            mCount = 0;
+        }
+    }
+
+    private static final class StreamOutput extends Utf8Output {
+        private final OutputStream mOut;
+
+        StreamOutput(OutputStream out) {
+            super(ChunkedOutput.BUFFER_SIZE);
+            this.mOut = out;
+        }
+
+        @Override
+        void require(int count) throws IOException {
+            drain();
+        }
+
+        @Override
+        void drain() throws IOException {
+            mOut.write(mBytes, 0, mCount);
+            mCount = 0;
+        }
+    }
+
+    private static final class ChannelOutput extends Utf8Output {
+        private final WritableByteChannel mOut;
+        private final ByteBuffer mBuffer;
+
+        ChannelOutput(WritableByteChannel out) {
+            super(ChunkedOutput.BUFFER_SIZE);
+            this.mOut = out;
+            this.mBuffer = ByteBuffer.wrap(mBytes);
+        }
+
+        @Override
+        void require(int count) throws IOException {
+            drain();
+        }
+
+        @Override
+        void drain() throws IOException {
+            mBuffer.clear();
+            mBuffer.limit(mCount);
+            while (mBuffer.hasRemaining()) {
+                mOut.write(mBuffer);
+            }
+            mCount = 0;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import java.net.URLDecoder;
 
 public class QSDecoder {
 
+    private static final char CHAR_PERCENT = '%';
+    private static final char CHAR_PLUS = '+';
+
     public static String decode(String input) {
         try {
             if (input == null) return null;
@@ -16,4 +19,23 @@ public class QSDecoder {
         }
         return "";
     }
+
+    /**
+     * 解码 input 中 [start, end) 区间，不存在转义字符时直接截取，不经过 {@link URLDecoder}
+     */
+    public static String decode(String input, int start, int end) {
+        if (input == null) return null;
+        if (needDecode(input, start, end)) {
+            return decode(input.substring(start, end));
+        }
+        return input.substring(start, end);
+    }
+
+    public static boolean needDecode(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch == CHAR_PERCENT || ch == CHAR_PLUS) return true;
+        }
+        return false;
+    }
 }
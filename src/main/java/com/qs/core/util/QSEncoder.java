@@ -1,19 +1,81 @@
 package com.qs.core.util;
 
-import com.qs.core.model.Charset;
-
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.io.IOException;
 
+/**
+ * 与 {@link java.net.URLEncoder} (UTF-8) 结果一致的编码，可以直接写入 Appendable，不产生中间的 byte[] 和 String
+ */
 public class QSEncoder {
 
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final char CHAR_PLUS = '+';
+    private static final char CHAR_PERCENT = '%';
+    // 无法编码的单个代理字符按 String.getBytes 的方式替换为 '?'
+    private static final int REPLACEMENT = '?';
+
     public static String encode(String input) {
+        if (!needEncode(input)) return input;
+        StringBuilder sb = new StringBuilder(input.length() + 16);
+        encode(input, sb);
+        return sb.toString();
+    }
+
+    public static void encode(String input, StringBuilder out) {
         try {
-            return URLEncoder.encode(input, Charset.UTF8.getCharset());
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
+            encode(input, (Appendable) out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 只向 out 写入 ASCII 字符
+     */
+    public static void encode(CharSequence input, Appendable out) throws IOException {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char ch = input.charAt(i);
+            if (isUnreserved(ch)) {
+                out.append(ch);
+            } else if (ch == ' ') {
+                out.append(CHAR_PLUS);
+            } else if (ch < 0x80) {
+                appendPercent(ch, out);
+            } else if (ch < 0x800) {
+                appendPercent(0xC0 | (ch >> 6), out);
+                appendPercent(0x80 | (ch & 0x3F), out);
+            } else if (!Character.isSurrogate(ch)) {
+                appendPercent(0xE0 | (ch >> 12), out);
+                appendPercent(0x80 | ((ch >> 6) & 0x3F), out);
+                appendPercent(0x80 | (ch & 0x3F), out);
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(input.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, input.charAt(++i));
+                appendPercent(0xF0 | (codePoint >> 18), out);
+                appendPercent(0x80 | ((codePoint >> 12) & 0x3F), out);
+                appendPercent(0x80 | ((codePoint >> 6) & 0x3F), out);
+                appendPercent(0x80 | (codePoint & 0x3F), out);
+            } else {
+                appendPercent(REPLACEMENT, out);
+            }
         }
-        return "";
+    }
+
+    /**
+     * 只包含 URLEncoder 不会转换的字符（字母、数字、'.'、'-'、'*'、'_'）时不需要编码
+     */
+    public static boolean needEncode(String input) {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            if (!isUnreserved(input.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isUnreserved(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                || ch == '.' || ch == '-' || ch == '*' || ch == '_';
+    }
+
+    private static void appendPercent(int b, Appendable out) throws IOException {
+        out.append(CHAR_PERCENT).append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
     }
 
 }
@@ -0,0 +1,117 @@
+package com.qs.core
+
+import com.qs.core.binary.BinaryReader
+import com.qs.core.binary.BinaryWriter
+import com.qs.core.model.ParseOptions
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+
+class BinaryTest extends Specification {
+
+    static String chars(int... codes) {
+        def sb = new StringBuilder()
+        codes.each { sb.append((char) it) }
+        return sb.toString()
+    }
+
+    @Unroll
+    def "round trip #query with dictionary #dictionary"() {
+        given:
+        def object = QS.parse(query, new ParseOptions.Builder().setStrictNullHandling(true).build())
+
+        when:
+        def bytes = BinaryWriter.toBytes(object, dictionary)
+        def result = BinaryReader.of(bytes).toQSObject()
+
+        then:
+        result == object
+        result.toQString() == object.toQString()
+
+        where:
+        [query, dictionary] << [[
+                "a=b",
+                "a[b][c]=d&a[b][e]=f&g[]=h&g[]=i",
+                "a[0][b]=c&a[1][b]=d&a[2][b]=e",
+                "a&b=&c[d]",
+                "a=%E4%BD%A0%E5%A5%BD&%F0%9F%98%80=%C3%A9",
+                "a[][b][][c]=d&e=" + "x" * 300,
+        ], [false, true]].combinations()
+    }
+
+    def "numbers keep their types"() {
+        given:
+        def object = new QSObject()
+        object.put("i", -5)
+        object.put("l", Long.MIN_VALUE)
+        object.put("ints", QSArray.ofInts(1, -1, Integer.MAX_VALUE))
+        object.put("longs", QSArray.ofLongs(1L, Long.MAX_VALUE))
+        object.put("s", chars(0xD800) + "x")
+
+        when:
+        def result = BinaryReader.of(BinaryWriter.toBytes(object)).toQSObject()
+
+        then:
+        result.get("i") == -5
+        result.get("i") instanceof Integer
+        result.get("l") == Long.MIN_VALUE
+        result.get("ints") == [1, -1, Integer.MAX_VALUE]
+        result.get("longs") == [1L, Long.MAX_VALUE]
+        result.get("longs")[0] instanceof Long
+        result.get("s") == "?x"
+    }
+
+    def "dictionary stores repeated keys once"() {
+        given:
+        def query = (0..<50).collect { "items[" + it + "][identifier]=" + it + "&items[" + it + "][description]=d" }.join("&")
+        def object = QS.parse(query, new ParseOptions.Builder().setDepth(5).build())
+
+        expect:
+        BinaryWriter.toBytes(object, true).length < BinaryWriter.toBytes(object, false).length / 2
+        BinaryReader.of(BinaryWriter.toBytes(object, true)).toQSObject() == object
+    }
+
+    @Unroll
+    def "navigate without building the tree, dictionary #dictionary"() {
+        given:
+        def object = QS.parse("filter[0][field]=name&filter[1][field]=age&page[size]=20&q=%C3%A9")
+        object.put("n", 42L)
+        def bytes = BinaryWriter.toBytes(object, dictionary)
+        def buffer = ByteBuffer.allocateDirect(bytes.length + 3)
+        buffer.put([9, 9, 9] as byte[]).put(bytes).flip().position(3)
+
+        when:
+        def root = BinaryReader.of(buffer).root()
+
+        then:
+        buffer.position() == 3
+        root.isObject()
+        root.size() == 4
+        root.getKeys() == ["filter", "page", "q", "n"]
+        root.get("filter").isArray()
+        root.get("filter").get(1).get("field").asString() == "age"
+        root.get("filter").get(2) == null
+        root.get("page").get("size").asLong() == 20
+        root.get("q").asString() == chars(0xE9)
+        root.get("n").isNumber()
+        root.get("n").asLong() == 42
+        root.get("n").asString() == "42"
+        root.get("missing") == null
+        root.get("q").get("x") == null
+        root.get("page").toValue() == [size: "20"]
+
+        where:
+        dictionary << [false, true]
+    }
+
+    def "rejects foreign data"() {
+        when:
+        BinaryReader.of("a=b".getBytes("UTF-8"))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,128 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import com.qs.core.parser.ParseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class BindingTest extends Specification {
+
+    def "bind query string to pojo"() {
+        when:
+        def request = QS.parse("q=hello+world&sort=desc&debug=on&ratio=0.5&page[size]=20&page%5Bnumber%5D=3" +
+                "&filter[ids][]=1&filter[ids][]=2&filter[tags][]=a&filter[tags][]=a&filter[active]=true" +
+                "&items[0][name]=x&items[1][name]=y&items[0][count]=2&numbers=1&numbers=2&unknown=1",
+                BindRequest, new ParseOptions.Builder().build())
+
+        then:
+        request.q == "hello world"
+        request.sort == BindRequest.Sort.DESC
+        request.debug
+        request.ratio == 0.5d
+        request.page.size == 20
+        request.page.number == 3L
+        request.filter.ids == [1L, 2L] as long[]
+        request.filter.tags == ["a"] as Set
+        request.filter.active
+        request.items*.name == ["x", "y"]
+        request.items*.count == [2, null]
+        request.numbers == [1, 2]
+    }
+
+    def "bind with comma and allowDots"() {
+        when:
+        def request = QS.parse("page.size=5&filter.ids=3,4",
+                BindRequest, new ParseOptions.Builder().setAllowDots(true).setComma(true).build())
+
+        then:
+        request.page.size == 5
+        request.filter.ids == [3L, 4L] as long[]
+        request.items == null
+    }
+
+    @Unroll
+    def "bind rejects #query"() {
+        when:
+        QS.parse(query, type)
+
+        then:
+        def e = thrown(ParseException)
+        e.errorType == ParseException.ERROR_BIND_EXCEPTION
+
+        where:
+        query                || type
+        "page[size]=abc"     || BindRequest
+        "debug=yes"          || BindRequest
+        "filter[active]=abc" || BindRequest
+        "a=b"                || NoDefaultConstructor
+    }
+
+    @Unroll
+    def "bind errors report the position of #query"() {
+        when:
+        QS.parse(query, BindRequest)
+
+        then:
+        def e = thrown(ParseException)
+        e.errorType == errorType
+        e.position == position
+
+        where:
+        query                                    || errorType                                | position
+        "q=a&page[size]=abc"                     || ParseException.ERROR_BIND_EXCEPTION      | 4
+        "numbers=1&numbers=x"                    || ParseException.ERROR_BIND_EXCEPTION      | 10
+        "filter[ids][]=1&filter[ids][]=y"        || ParseException.ERROR_BIND_EXCEPTION      | 16
+        "filter[ids][]=1&filter[ids][5]=2"       || ParseException.ERROR_SKIP_ADD_EXCEPTION  | 16
+        "items[1][name]=x"                       || ParseException.ERROR_SKIP_ADD_EXCEPTION  | 0
+    }
+
+    def "skip add is rejected like the parser"() {
+        when:
+        QS.parse("filter[ids][]=1&filter[ids][5]=2")
+
+        then:
+        def e = thrown(ParseException)
+        e.errorType == ParseException.ERROR_SKIP_ADD_EXCEPTION
+    }
+
+    @Unroll
+    def "malformed escape in #query is reported like the parser"() {
+        when:
+        QS.parse(query)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        QS.parse(query, BindRequest)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        query << ["q=%zz", "page%zz=1"]
+    }
+
+    def "keys deeper than depth are kept as literal keys"() {
+        given:
+        def options = new ParseOptions.Builder().setDepth(1).build()
+
+        when:
+        def request = QS.parse("page[size]=5&filter[ids][0][x]=1&items[0][name]=x", BindRequest, options)
+
+        then:
+        request.page.size == 5
+        request.filter.ids.length == 0
+        request.items*.name == [null]
+        QS.parse("filter[ids][0][x]=1", options).get("filter").get("ids").containsKey("[0][x]")
+        QS.parse("items[0][name]=x", options).get("items")[0].containsKey("[name]")
+    }
+
+    static class NoDefaultConstructor {
+        String a
+
+        NoDefaultConstructor(String a) {
+            this.a = a
+        }
+    }
+}
@@ -222,6 +222,32 @@ class InDepthTest extends Specification {
         ObjectEqual.equals(QS.toJsonString(object8), new Gson().toJson(object8))
     }
 
+    def "toJsonString escapes keys and values"() {
+        setup:
+        def object = new QSObject()
+        def array = new QSArray()
+        array.add("tab\tnew\nline")
+        array.add(null)
+        array.add(1)
+        object.put("quo\"te", "back\\slash")
+        object.put("ctrl", "a" + (char) 1 + "b" + (char) 0x1F)
+        object.put("中文", "😀")
+        object.put("array", array)
+        def json = new com.google.gson.GsonBuilder().serializeNulls().create()
+        def writer = new StringWriter()
+        def stream = new ByteArrayOutputStream()
+
+        when:
+        object.writeJsonString(writer)
+        object.writeJsonString(stream)
+
+        then:
+        json.fromJson(QS.toJsonString(object), Map) == json.fromJson(json.toJson(object), Map)
+        QS.toJsonString(object) == '{"quo\\"te":"back\\\\slash","ctrl":"a\\u0001b\\u001f","中文":"😀","array":["tab\\tnew\\nline",null,1]}'
+        writer.toString() == QS.toJsonString(object)
+        stream.toString("UTF-8") == QS.toJsonString(object)
+    }
+
     @Shared
     def object9 = new QSObject()
 
@@ -285,4 +311,29 @@ class InDepthTest extends Specification {
         expect:
         Logger.isDebug()
     }
+
+    def "qs formatter without colors from concurrent threads"() {
+        setup:
+        def object = QS.parse("a[b][]=1&a[b][]=2&a[c][d]=e&f=g")
+        def expect = "{\n" +
+                "\ta:{\n" +
+                "\t\tb:[\n" +
+                "\t\t\t\"1\",\n" +
+                "\t\t\t\"2\"\n" +
+                "\t\t],\n" +
+                "\t\tc:{\n" +
+                "\t\t\td:\"e\"\n" +
+                "\t\t}\n" +
+                "\t},\n" +
+                "\tf:\"g\"\n" +
+                "}"
+        def pool = java.util.concurrent.Executors.newFixedThreadPool(8)
+
+        when:
+        def results = pool.invokeAll((1..200).collect { { -> object.toFormatString(false) } as java.util.concurrent.Callable }).collect { it.get() }
+        pool.shutdown()
+
+        then:
+        results.every { it == expect }
+    }
 }
@@ -0,0 +1,59 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import com.qs.core.parser.QSIndex
+import spock.lang.Specification
+
+class IndexingTest extends Specification {
+
+    def "index records key and value offsets"() {
+        setup:
+        def index = new QSIndex(1)
+        def input = "a=b&&c%5B0%5D=d+e&f&g="
+
+        when:
+        index.index(input)
+
+        then:
+        index.size() == 4
+        index.keyStart(0) == 0
+        index.keyEnd(0) == 1
+        index.valueStart(0) == 2
+        index.valueEnd(0) == 3
+        index.hasValue(0)
+        !index.keyNeedsDecoding(0)
+        !index.valueNeedsDecoding(0)
+        index.key(1) == "c[0]"
+        index.value(1) == "d e"
+        index.keyNeedsDecoding(1)
+        index.valueNeedsDecoding(1)
+        index.key(2) == "f"
+        !index.hasValue(2)
+        index.value(2) == null
+        index.hasValue(3)
+        index.value(3) == ""
+        index.indexOf("c[0]") == 1
+        index.indexOf("x") == -1
+    }
+
+    def "index is reusable and honors options"() {
+        setup:
+        def index = new QSIndex()
+
+        when:
+        index.index("a=1&b=2&c=3")
+        index.index("?x=1&y=2", new ParseOptions.Builder().setIgnoreQueryPrefix(true).setParameterLimit(1).build())
+
+        then:
+        index.size() == 1
+        index.key(0) == "x"
+        index.value(0) == "1"
+
+        when:
+        index.clear()
+
+        then:
+        index.size() == 0
+        index.getSource() == null
+    }
+}
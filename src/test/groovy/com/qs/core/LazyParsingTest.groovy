@@ -0,0 +1,69 @@
+package com.qs.core
+
+import com.qs.core.model.LazyQSObject
+import com.qs.core.model.LazyValue
+import com.qs.core.model.ParseOptions
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class LazyParsingTest extends Specification {
+
+    @Unroll
+    def "lazy parse behaves like eager parse"(String input) {
+        setup:
+        def lazyOptions = new ParseOptions.Builder().setLazy(true).setStrictNullHandling(true).build()
+        def eagerOptions = new ParseOptions.Builder().setStrictNullHandling(true).build()
+
+        expect:
+        def lazy = QS.parse(input, lazyOptions)
+        def eager = QS.parse(input, eagerOptions)
+        lazy instanceof LazyQSObject
+        lazy.toQString() == eager.toQString()
+        lazy == eager
+        ObjectEqual.equals(lazy, eager)
+
+        where:
+        input << [
+                "a=b",
+                "a=%20b+c&d",
+                "a[b][c]=d&a[b][e]=f",
+                "a[]=1&a[]=2&a[]=3",
+                "a=1&a=2",
+                "a[0][b]=c&a[1][b]=d",
+                "a[0]=b&a[b]=c",
+                "&c1[b2][0][d1]=1&c1[b2][0][d2]=2&c1[b2][0][d2]=3&c1[b2][1][d1]=4&c1[b2][1][d1]"
+        ]
+    }
+
+    def "values are decoded on first get and cached"() {
+        setup:
+        def object = (LazyQSObject) QS.parse("a=%41&b=c&d[]=e", new ParseOptions.Builder().setLazy(true).build())
+
+        expect:
+        object.peek("a") instanceof LazyValue
+        object.peek("b") instanceof LazyValue
+        object.get("a") == "A"
+        object.peek("a") == "A"
+        object.peek("b") instanceof LazyValue
+        object.get("d") == ["e"]
+        object.peek("b") instanceof LazyValue
+        object.values().toList() == ["A", "c", ["e"]]
+        object.peek("b") == "c"
+    }
+
+    def "serialization decodes lazy values first"() {
+        given:
+        def object = QS.parse("a=%20b&c=d&e[]=%20f&g[h]=i", new ParseOptions.Builder().setLazy(true).build())
+        def bytes = new ByteArrayOutputStream()
+
+        when:
+        new ObjectOutputStream(bytes).writeObject(object)
+        def copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject()
+
+        then:
+        copy instanceof LazyQSObject
+        copy == [a: " b", c: "d", e: [" f"], g: [h: "i"]]
+        ((LazyQSObject) copy).peek("a") == " b"
+        ((LazyQSObject) copy.get("g")).peek("h") == "i"
+    }
+}
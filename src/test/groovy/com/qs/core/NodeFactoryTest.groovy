@@ -0,0 +1,118 @@
+package com.qs.core
+
+import com.qs.core.model.LazyQSObject
+import com.qs.core.model.NodeFactory
+import com.qs.core.model.ParseOptions
+import com.qs.core.model.QSArena
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import spock.lang.Specification
+
+class NodeFactoryTest extends Specification {
+
+    static class TaggedObject extends QSObject {
+    }
+
+    def "custom factory creates every node"() {
+        given:
+        def factory = new NodeFactory() {
+            @Override
+            QSObject newObject() {
+                return new TaggedObject()
+            }
+
+            @Override
+            QSArray newArray() {
+                return new QSArray()
+            }
+        }
+        def options = new ParseOptions.Builder().setNodeFactory(factory).build()
+
+        when:
+        def result = QS.parse("a[b][c]=d&e[][f]=g&h=i&h=j", options)
+
+        then:
+        result instanceof TaggedObject
+        result.get("a") instanceof TaggedObject
+        result.get("a").get("b") instanceof TaggedObject
+        result.get("e")[0] instanceof TaggedObject
+        result == QS.parse("a[b][c]=d&e[][f]=g&h=i&h=j")
+        options != new ParseOptions.Builder().build()
+    }
+
+    def "arena reuses nodes after reset"() {
+        given:
+        def options = new ParseOptions.Builder().setNodeFactory(QSArena.PER_THREAD).build()
+        def arena = QSArena.current()
+        arena.release()
+
+        when:
+        def first = QS.parse("a[b]=c&d[]=e&d[]=f", options)
+        def firstText = first.toQString()
+        def capacity = arena.capacity()
+        def nested = first.get("a")
+        arena.reset()
+        def second = QS.parse("x[y]=z&w[]=1&w[]=2", options)
+
+        then:
+        firstText == QS.parse("a[b]=c&d[]=e&d[]=f").toQString()
+        second.is(first)
+        second.get("x").is(nested)
+        second == QS.parse("x[y]=z&w[]=1&w[]=2")
+        arena.capacity() == capacity
+
+        cleanup:
+        arena.release()
+    }
+
+    def "arena works with lazy and frozen results"() {
+        given:
+        def arena = QSArena.current()
+        arena.release()
+        def frozen = new ParseOptions.Builder().setNodeFactory(QSArena.PER_THREAD).setFreeze(true).build()
+        def lazy = new ParseOptions.Builder().setNodeFactory(QSArena.PER_THREAD).setLazy(true).build()
+
+        when:
+        def first = QS.parse("a[b]=c", frozen)
+        arena.reset()
+        def second = QS.parse("a[b]=%20c", frozen)
+        arena.reset()
+        def third = QS.parse("a[b]=%20c&d=%20e", lazy)
+
+        then:
+        !second.is(first)
+        first.get("a").get("b") == "c"
+        second.get("a").get("b") == " c"
+        third.get("a").get("b") == " c"
+        third.get("d") == " e"
+
+        cleanup:
+        arena.release()
+    }
+
+    def "arena reuses lazy objects"() {
+        given:
+        def arena = QSArena.current()
+        arena.release()
+        def lazy = new ParseOptions.Builder().setNodeFactory(QSArena.PER_THREAD).setLazy(true).build()
+
+        when:
+        def first = QS.parse("a[b]=%20c&d=e", lazy)
+        def nested = first.get("a")
+        def capacity = arena.capacity()
+        arena.reset()
+        def second = QS.parse("x[y]=%20z&w=v", lazy)
+
+        then:
+        first instanceof LazyQSObject
+        second.is(first)
+        second.get("x").is(nested)
+        second.get("x").get("y") == " z"
+        second.get("w") == "v"
+        !second.containsKey("a")
+        arena.capacity() == capacity
+
+        cleanup:
+        arena.release()
+    }
+}
@@ -0,0 +1,122 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import com.qs.core.parser.ParseCache
+import com.qs.core.parser.ParseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ParseCacheTest extends Specification {
+
+    def "hits return the same frozen result"() {
+        given:
+        def cache = new ParseCache.Builder().build()
+
+        when:
+        def first = cache.parse("a[b]=c&d=e")
+        def second = cache.parse("a[b]=c&d=e")
+        def other = cache.parse("a[b]=c&d=e", new ParseOptions.Builder().setAllowDots(true).build())
+        def stats = cache.stats()
+
+        then:
+        first.is(second)
+        !first.is(other)
+        first.isFrozen()
+        first.get("a").isFrozen()
+        first == QS.parse("a[b]=c&d=e")
+        stats.hitCount == 1
+        stats.missCount == 2
+        stats.size == 2
+        stats.hitRate == 1 / 3d
+    }
+
+    def "options with the same values share entries"() {
+        given:
+        def cache = new ParseCache.Builder().build()
+
+        when:
+        cache.parse("a.b=c", new ParseOptions.Builder().setAllowDots(true).setDepth(3).build())
+        cache.parse("a.b=c", new ParseOptions.Builder().setDepth(3).setAllowDots(true).build())
+
+        then:
+        cache.stats().hitCount == 1
+        new ParseOptions.Builder().build() == new ParseOptions.Builder().build()
+        new ParseOptions.Builder().build().hashCode() == new ParseOptions.Builder().build().hashCode()
+        new ParseOptions.Builder().setLazy(true).build() != new ParseOptions.Builder().build()
+    }
+
+    def "malformed input is cached negatively"() {
+        given:
+        def cache = new ParseCache.Builder().build()
+        def expect = null
+        try {
+            QS.parse("a[b=c")
+        } catch (ParseException e) {
+            expect = e.message
+        }
+
+        when:
+        cache.parse("a[b=c")
+
+        then:
+        def first = thrown(ParseException)
+        first.message == expect
+
+        when:
+        cache.parse("a[b=c")
+
+        then:
+        def second = thrown(ParseException)
+        !second.is(first)
+        second.message == expect
+        cache.stats().negativeHitCount == 1
+        cache.stats().hitCount == 1
+    }
+
+    @Unroll
+    def "malformed escape is cached negatively with lazy #lazy"() {
+        given:
+        def cache = new ParseCache.Builder().build()
+        def options = new ParseOptions.Builder().setLazy(lazy).build()
+
+        when:
+        cache.parse("a=%zz", options)
+
+        then:
+        def first = thrown(ParseException)
+        first.errorType == ParseException.ERROR_UNEXPECTED_EXCEPTION
+
+        when:
+        cache.parse("a=%zz", options)
+
+        then:
+        def second = thrown(ParseException)
+        second.message == first.message
+        cache.stats().missCount == 1
+        cache.stats().hitCount == 1
+        cache.stats().negativeHitCount == 1
+
+        where:
+        lazy << [false, true]
+    }
+
+    def "size and weight bounds evict entries"() {
+        given:
+        def bySize = new ParseCache.Builder().setMaximumSize(10).build()
+        def byWeight = new ParseCache.Builder().setMaximumSize(-1).setMaximumWeight(100).build()
+        def both = new ParseCache.Builder().setMaximumSize(10).setMaximumWeight(10000).build()
+
+        when:
+        (0..<100).each {
+            bySize.parse("a=" + it)
+            byWeight.parse("a=" + "x" * 20 + it)
+            both.parse("a=" + it)
+        }
+
+        then:
+        bySize.size() <= 10
+        byWeight.size() <= 5
+        both.size() <= 10
+        bySize.stats().evictionCount >= 90
+    }
+}
@@ -203,4 +203,23 @@ class ParsingArraysTest extends Specification {
         input               || expect
         commaArrayQString || commaArrayObject
     }
+
+    def "typed arrays keep stringify output"() {
+        given:
+        def options = new ParseOptions.Builder().setTypedArrays(true).build()
+
+        when:
+        def result = QS.parse("a[]=1&a[]=-2&b[]=1&b[]=4294967296&c[]=1&c[]=01&d[0][]=7&e=5", options)
+
+        then:
+        (result.get("a") as QSArray).isIntArray()
+        result.get("a") == [1, -2]
+        (result.get("b") as QSArray).isLongArray()
+        result.get("b") == [1L, 4294967296L]
+        result.get("c") == ["1", "01"]
+        result.get("d")[0] == [7]
+        result.get("e") == "5"
+        result.toQString() == QS.parse("a[]=1&a[]=-2&b[]=1&b[]=4294967296&c[]=1&c[]=01&d[0][]=7&e=5").toQString()
+        result.toJsonString() == '{"a":[1,-2],"b":[1,4294967296],"c":["1","01"],"d":[[7]],"e":"5"}'
+    }
 }
@@ -0,0 +1,398 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class QSObjectTest extends Specification {
+
+    @Unroll
+    def "behaves like LinkedHashMap with #size keys"() {
+        given:
+        def object = new QSObject()
+        def expect = new LinkedHashMap<String, Object>()
+        def random = new Random(size)
+        for (int i = 0; i < size * 4; i++) {
+            def key = "k" + random.nextInt(size * 2)
+            switch (random.nextInt(4)) {
+                case 0:
+                    assert object.remove(key) == expect.remove(key)
+                    break
+                default:
+                    assert object.put(key, i) == expect.put(key, i)
+                    break
+            }
+            assert object.size() == expect.size()
+        }
+
+        expect:
+        object == expect
+        expect == object
+        object.hashCode() == expect.hashCode()
+        object.toString() == expect.toString()
+        object.keySet().toList() == expect.keySet().toList()
+        object.values().toList() == expect.values().toList()
+        expect.keySet().every { object.containsKey(it) && object.get(it) == expect.get(it) }
+        !object.containsKey("missing")
+        object.get(null) == null
+
+        where:
+        size << [1, 4, 8, 9, 20, 200]
+    }
+
+    @Unroll
+    def "keeps a single null key like LinkedHashMap with #size keys"() {
+        given:
+        def object = new QSObject()
+        def expect = new LinkedHashMap<String, Object>()
+        (0..<size).each {
+            object.put("k" + it, it)
+            expect.put("k" + it, it)
+        }
+
+        when:
+        def first = object.put(null, "a")
+        def second = object.put(null, "b")
+        expect.put(null, "a")
+        expect.put(null, "b")
+
+        then:
+        first == null
+        second == "a"
+        object.size() == size + 1
+        object.containsKey(null)
+        object.get(null) == "b"
+        object == expect
+        object.keySet().toList() == expect.keySet().toList()
+
+        when:
+        def removed = object.remove(null)
+
+        then:
+        removed == "b"
+        !object.containsKey(null)
+        object.size() == size
+
+        where:
+        size << [0, 4, 12]
+    }
+
+    def "iterator and entry views write through"() {
+        given:
+        def object = new QSObject()
+        (0..<12).each { object.put("k" + it, it) }
+
+        when:
+        def iterator = object.entrySet().iterator()
+        while (iterator.hasNext()) {
+            def entry = iterator.next()
+            if (entry.value % 2 == 0) {
+                iterator.remove()
+            } else {
+                entry.value = entry.value * 10
+            }
+        }
+
+        then:
+        object.keySet().toList() == ["k1", "k3", "k5", "k7", "k9", "k11"]
+        object.get("k11") == 110
+        object.get("k2") == null
+
+        when:
+        object.keySet().each { object.put("new", 1) }
+
+        then:
+        thrown(ConcurrentModificationException)
+    }
+
+    def "clone and serialization keep order"() {
+        given:
+        def object = new QSObject()
+        (0..<10).each { object.put("k" + it, String.valueOf(it)) }
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).writeObject(object)
+
+        when:
+        def copy = (QSObject) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject()
+        def clone = object.clone()
+        clone.put("extra", "x")
+
+        then:
+        copy == object
+        copy.get("k9") == "9"
+        copy.keySet().toList() == object.keySet().toList()
+        !object.containsKey("extra")
+        clone.size() == 11
+    }
+
+    @Unroll
+    def "QSArray behaves like ArrayList starting from #start"() {
+        given:
+        def array = start.clone()
+        def expect = new ArrayList<Object>(start)
+        def random = new Random(start.size())
+        for (int i = 0; i < 200; i++) {
+            Object value = [i, (long) i, "s" + i, null][random.nextInt(4)]
+            switch (random.nextInt(5)) {
+                case 0:
+                    if (!expect.isEmpty()) {
+                        int index = random.nextInt(expect.size())
+                        assert array.remove(index) == expect.remove(index)
+                    }
+                    break
+                case 1:
+                    if (!expect.isEmpty()) {
+                        int index = random.nextInt(expect.size())
+                        assert array.set(index, value) == expect.set(index, value)
+                    }
+                    break
+                case 2:
+                    int index = random.nextInt(expect.size() + 1)
+                    array.add(index, value)
+                    expect.add(index, value)
+                    break
+                default:
+                    assert array.add(value) == expect.add(value)
+                    break
+            }
+            assert array == expect
+        }
+
+        expect:
+        array.hashCode() == expect.hashCode()
+        array.toString() == expect.toString()
+        array.clone() == expect
+
+        where:
+        start << [new QSArray(), QSArray.ofInts(1, 2, 3), QSArray.ofLongs(1L, 2L)]
+    }
+
+    def "QSArray specializes integer elements"() {
+        given:
+        def ints = new QSArray(["1", "-2", "0", 3])
+        def longs = new QSArray(["1", "9223372036854775807", "-9223372036854775808"])
+
+        expect:
+        ints.specialize()
+        ints.isIntArray()
+        ints == [1, -2, 0, 3]
+        ints.getInt(1) == -2
+        longs.specialize()
+        longs.isLongArray()
+        longs == [1L, Long.MAX_VALUE, Long.MIN_VALUE]
+        longs.getLong(2) == Long.MIN_VALUE
+        !new QSArray(input).specialize()
+
+        when:
+        ints.add("x")
+
+        then:
+        !ints.isIntArray()
+        ints == [1, -2, 0, 3, "x"]
+
+        where:
+        input << [[], ["01"], ["-0"], ["+1"], ["1", "a"], ["9223372036854775808"], [1, 2L], ["1", null]]
+    }
+
+    def "typedArrays writes integer elements as JSON numbers"() {
+        given:
+        def typed = QS.parse("a[]=1&a[]=2", new ParseOptions.Builder().setTypedArrays(true).build())
+        def plain = QS.parse("a[]=1&a[]=2")
+
+        expect:
+        typed.toJsonString() == '{"a":[1,2]}'
+        plain.toJsonString() == '{"a":["1","2"]}'
+        typed.toQString() == plain.toQString()
+    }
+
+    @Unroll
+    def "QSArray getInt overflows the same way for every storage: #array"() {
+        when:
+        array.getInt(0)
+
+        then:
+        thrown(ArithmeticException)
+
+        where:
+        array << [QSArray.ofLongs(Integer.MAX_VALUE + 1L), new QSArray([Integer.MAX_VALUE + 1L]), new QSArray(["-2147483649"])]
+    }
+
+    @Unroll
+    def "frozen tree rejects #name"() {
+        given:
+        def object = QS.parse("a[b]=c&d[]=1&d[]=2&e[0][f]=g", new ParseOptions.Builder().setFreeze(true).build())
+
+        when:
+        mutation(object)
+
+        then:
+        thrown(UnsupportedOperationException)
+        object.isFrozen()
+        object.toQString() == "a%5Bb%5D=c&d%5B0%5D=1&d%5B1%5D=2&e%5B0%5D%5Bf%5D=g"
+
+        where:
+        name                  | mutation
+        "put"                 | { it.put("x", "y") }
+        "remove"              | { it.remove("a") }
+        "remove missing key"  | { it.remove("missing") }
+        "clear"               | { it.clear() }
+        "putAll"              | { it.putAll([x: "y"]) }
+        "entry setValue"      | { it.entrySet().iterator().next().setValue("x") }
+        "iterator remove"     | { def i = it.keySet().iterator(); i.next(); i.remove() }
+        "nested object put"   | { it.get("a").put("x", "y") }
+        "array add"           | { it.get("d").add("3") }
+        "array set"           | { it.get("d").set(0, "3") }
+        "array remove"        | { it.get("d").remove(0) }
+        "array sort"          | { it.get("d").sort(null) }
+        "object in array put" | { it.get("e")[0].put("x", "y") }
+    }
+
+    def "freeze resolves lazy values and clone is mutable"() {
+        given:
+        def object = QS.parse("a=%20b&c[]=%20d&c[]=e", new ParseOptions.Builder().setLazy(true).build())
+
+        when:
+        object.freeze()
+        def clone = object.clone()
+        clone.put("x", "y")
+
+        then:
+        object.isFrozen()
+        object.get("a") == " b"
+        object.get("c") == [" d", "e"]
+        (object.get("c") as QSArray).isFrozen()
+        !clone.isFrozen()
+        clone.size() == 3
+        object.size() == 2
+    }
+
+    def "frozen tree can be read from many threads"() {
+        given:
+        def query = (0..<50).collect { "k" + it + "[v]=" + it }.join("&")
+        def object = QS.parse(query, new ParseOptions.Builder().setFreeze(true).setLazy(true).build())
+        def pool = java.util.concurrent.Executors.newFixedThreadPool(4)
+
+        when:
+        def futures = (0..<8).collect { pool.submit({ (0..<50).every { i -> object.get("k" + i).get("v") == String.valueOf(i) } } as java.util.concurrent.Callable) }
+
+        then:
+        futures.every { it.get() }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "with copies only the edited path"() {
+        given:
+        def source = QS.parse("page[number]=1&page[size]=20&filter[tags][]=a&filter[tags][]=b&q=x",
+                new ParseOptions.Builder().setFreeze(true).build())
+
+        when:
+        def next = source.with("page[number]", "2")
+        def appended = source.with("filter[tags][]", "c")
+        def created = source.with("sort[0][field]", "name")
+
+        then:
+        source.toQString() == QS.parse("page[number]=1&page[size]=20&filter[tags][]=a&filter[tags][]=b&q=x").toQString()
+        next.get("page").get("number") == "2"
+        next.get("page").get("size") == "20"
+        next.get("filter").is(source.get("filter"))
+        !next.get("page").is(source.get("page"))
+        next.isFrozen()
+        next.get("page").isFrozen()
+        appended.get("filter").get("tags") == ["a", "b", "c"]
+        appended.get("page").is(source.get("page"))
+        created.get("sort") == [[field: "name"]]
+        created.get("sort").isFrozen()
+    }
+
+    def "with on a frozen object leaves the value mutable"() {
+        given:
+        def source = QS.parse("a[b]=c", new ParseOptions.Builder().setFreeze(true).build())
+        def value = QS.parse("x[y]=z&n[]=1")
+
+        when:
+        def result = source.with("a[d]", value)
+        value.put("w", "v")
+        value.get("x").put("u", "t")
+
+        then:
+        !value.isFrozen()
+        !value.get("x").isFrozen()
+        result.isFrozen()
+        result.get("a").get("d").isFrozen()
+        result.get("a").get("d").get("n").isFrozen()
+        result.get("a").get("d") == [x: [y: "z"], n: ["1"]]
+    }
+
+    def "without removes a path and keeps the rest shared"() {
+        given:
+        def source = QS.parse("a[b]=c&a[d]=e&f[]=1&f[]=2&utm_source=x")
+
+        when:
+        def stripped = source.without("utm_source")
+        def nested = source.without("a[b]")
+        def element = source.without("f[0]")
+
+        then:
+        stripped.keySet().toList() == ["a", "f"]
+        stripped.get("a").is(source.get("a"))
+        nested.get("a") == [d: "e"]
+        nested.get("f").is(source.get("f"))
+        element.get("f") == ["2"]
+        source.without("missing").is(source)
+        source.without("a[missing]").is(source)
+        source.without("f[5]").is(source)
+        source.get("a") == [b: "c", d: "e"]
+        !stripped.isFrozen()
+    }
+
+    def "merge combines objects recursively"() {
+        given:
+        def source = QS.parse("a[b]=c&a[d]=e&f=g&h[i]=j", new ParseOptions.Builder().setFreeze(true).build())
+        def other = QS.parse("a[b]=x&a[y]=z&f[]=1")
+
+        when:
+        def merged = source.merge(other)
+
+        then:
+        merged.get("a") == [b: "x", d: "e", y: "z"]
+        merged.get("f") == ["1"]
+        merged.get("h").is(source.get("h"))
+        merged.isFrozen()
+        source.merge(new QSObject()).is(source)
+        source.get("a") == [b: "c", d: "e"]
+    }
+
+    def "merge into a frozen object leaves other mutable"() {
+        given:
+        def source = QS.parse("a[b]=c", new ParseOptions.Builder().setFreeze(true).build())
+        def other = QS.parse("k[l]=m&n[]=o&a[p][q]=r")
+
+        when:
+        def merged = source.merge(other)
+        other.get("k").put("x", "y")
+        other.get("n").add("z")
+        other.get("a").get("p").put("s", "t")
+
+        then:
+        merged.isFrozen()
+        merged.get("k").isFrozen()
+        merged.get("n").isFrozen()
+        merged.get("a").get("p").isFrozen()
+        merged.get("k") == [l: "m"]
+        merged.get("n") == ["o"]
+        merged.get("a") == [b: "c", p: [q: "r"]]
+        !other.get("k").isFrozen()
+    }
+
+    def "with rejects names on arrays"() {
+        when:
+        QS.parse("a[]=b").with("a[c]", "d")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,110 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import com.qs.core.model.QSObject
+import com.qs.core.model.QSPath
+import com.qs.core.model.StringifyOptions
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class QSPathTest extends Specification {
+
+    @Unroll
+    def "get #path"() {
+        given:
+        def object = QS.parse("filter[0][field]=name&filter[0][op]=eq&filter[1][field]=age&page[size]=20&ids[]=1&ids[]=2&a[0]=b&a[c]=d")
+
+        expect:
+        QSPath.compile(path).get(object) == expect
+        QSPath.compile(path).exists(object) == exists
+
+        where:
+        path               || expect     | exists
+        "filter[0][field]" || "name"     | true
+        "filter[1][field]" || "age"      | true
+        "filter[2][field]" || null       | false
+        "page[size]"       || "20"       | true
+        "page[size][x]"    || null       | false
+        "ids[1]"           || "2"        | true
+        "ids[]"            || null       | false
+        "ids[x]"           || null       | false
+        "a[0]"             || "b"        | true
+        "a[c]"             || "d"        | true
+        "missing"          || null       | false
+        "page"             || [size: "20"] | true
+    }
+
+    def "exists distinguishes null values"() {
+        given:
+        def object = QS.parse("a&b[c]", new ParseOptions.Builder().setStrictNullHandling(true).build())
+
+        expect:
+        QSPath.compile("a").get(object) == null
+        QSPath.compile("a").exists(object)
+        QSPath.compile("b[c]").exists(object)
+        !QSPath.compile("b[d]").exists(object)
+    }
+
+    def "allowDots splits dotted names"() {
+        given:
+        def object = QS.parse("a[b][c]=d")
+
+        expect:
+        QSPath.compile("a.b.c", true).get(object) == "d"
+        QSPath.compile("a.b[c]", true).get(object) == "d"
+        QSPath.compile("a.b.c").get(object) == null
+    }
+
+    def "set creates missing containers in place"() {
+        given:
+        def object = new QSObject()
+
+        when:
+        QSPath.compile("filter[0][field]").set(object, "name")
+        QSPath.compile("filter[0][op]").set(object, "eq")
+        QSPath.compile("filter[][field]").set(object, "age")
+        QSPath.compile("page[size]").set(object, "20")
+        QSPath.compile("page[size]").set(object, "50")
+        QSPath.compile("tags[]").set(object, "a")
+
+        then:
+        object.toQString(new StringifyOptions.Builder().setEncode(false).build()) ==
+                "filter[0][field]=name&filter[0][op]=eq&filter[1][field]=age&page[size]=50&tags[0]=a"
+    }
+
+    def "set rejects names on arrays and skipped indexes"() {
+        given:
+        def object = QS.parse("a[]=b")
+
+        when:
+        QSPath.compile(path).set(object, "x")
+
+        then:
+        thrown(exception)
+
+        where:
+        path   || exception
+        "a[c]" || IllegalArgumentException
+        "a[5]" || IndexOutOfBoundsException
+        "a[b"  || IllegalArgumentException
+    }
+
+    def "compiled paths are shared"() {
+        expect:
+        QSPath.compile("a[b]").is(QSPath.compile("a[b]"))
+        !QSPath.compile("a.b", true).is(QSPath.compile("a.b"))
+        QSPath.compile("a[b][0]").size() == 3
+        QSPath.compile("a[b][0]").toString() == "a[b][0]"
+    }
+
+    def "frequently used paths survive many distinct paths"() {
+        given:
+        def hot = QSPath.compile("hot[path]")
+
+        expect:
+        (0..<5000).every {
+            QSPath.compile("cold[" + it + "]")
+            QSPath.compile("hot[path]").is(hot)
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.qs.core
+
+import com.qs.core.model.ArrayFormat
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import com.qs.core.model.StringifyOptions
+import com.qs.core.stringify.QueryWriter
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class QueryWriterTest extends Specification {
+
+    @Unroll
+    def "writer output equals Stringifier: #options.arrayFormat"() {
+        given:
+        def ids = new QSArray()
+        ids.add(1)
+        ids.add(2)
+        def filter = new QSObject()
+        filter.put("ids", ids)
+        filter.put("name", "a b")
+        filter.put("empty", null)
+        def tags = new QSArray()
+        tags.add("x")
+        def object = new QSObject()
+        object.put("a", "b")
+        object.put("filter", filter)
+        object.put("tags", tags)
+        object.put("c", "d")
+
+        def sb = new StringBuilder()
+
+        when:
+        QueryWriter.begin(sb, options)
+                .put("a", "b")
+                .object("filter").array("ids").add(1).add(2).end().put("name", "a b").put("empty", null).end()
+                .put("tags", tags)
+                .put("c", "d")
+
+        then:
+        sb.toString() == object.toQString(options)
+
+        where:
+        options << [
+                new StringifyOptions.Builder().build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.BRACKETS).setEncode(false).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.REPEAT).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).setAddQueryPrefix(true).build(),
+                new StringifyOptions.Builder().setAllowDots(true).setSkipNulls(true).build(),
+                new StringifyOptions.Builder().setStrictNullHandling(true).build(),
+        ]
+    }
+
+    def "nested elements in arrays"() {
+        given:
+        def sb = new StringBuilder()
+
+        when:
+        QueryWriter.begin(sb, new StringifyOptions.Builder().setEncode(false).build())
+                .array("a").object().put("b", "c").end().array().add("d").add("e").end().add("f").end()
+                .put("g", "h")
+
+        then:
+        sb.toString() == "a[0][b]=c&a[1][0]=d&a[1][1]=e&a[2]=f&g=h"
+    }
+
+    def "scope misuse"() {
+        when:
+        QueryWriter.begin(new StringBuilder()).add("a")
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        QueryWriter.begin(new StringBuilder()).array("a").put("b", "c")
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        QueryWriter.begin(new StringBuilder()).end()
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        QueryWriter.begin(new StringBuilder(), new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).build()).array("a").object()
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
@@ -0,0 +1,44 @@
+package com.qs.core
+
+import com.qs.core.model.ParseOptions
+import spock.lang.Unroll
+
+import spock.lang.Specification
+
+class ScanningTest extends Specification {
+
+    @Unroll
+    def "get first value without parsing"(String input, String key, ParseOptions options, String expect) {
+        expect:
+        QS.getFirst(input, key, options) == expect
+
+        where:
+        input                          || key          || options                                                         || expect
+        "tenant=abc&b=c"               || "tenant"     || new ParseOptions.Builder().build()                              || "abc"
+        "a=1&a=2"                      || "a"          || new ParseOptions.Builder().build()                              || "1"
+        "a=b"                          || "c"          || new ParseOptions.Builder().build()                              || null
+        "page%5Bsize%5D=10"            || "page[size]" || new ParseOptions.Builder().build()                              || "10"
+        "a+b=c%20d"                    || "a b"        || new ParseOptions.Builder().build()                              || "c d"
+        "a+b=c"                        || "a+b"        || new ParseOptions.Builder().build()                              || null
+        "%E4%BD%A0%E5%A5%BD=1"         || "你好"         || new ParseOptions.Builder().build()                              || "1"
+        "你好=1"                         || "你好"         || new ParseOptions.Builder().build()                              || "1"
+        "&&a&b="                       || "a"          || new ParseOptions.Builder().build()                              || ""
+        "a&b="                         || "a"          || new ParseOptions.Builder().setStrictNullHandling(true).build()  || null
+        "?a=b"                         || "a"          || new ParseOptions.Builder().setIgnoreQueryPrefix(true).build()   || "b"
+        "?a=b"                         || "a"          || new ParseOptions.Builder().build()                              || null
+        "a=b&c=d"                      || "c"          || new ParseOptions.Builder().setParameterLimit(1).build()         || null
+        "%zz=1&a=2"                    || "a"          || new ParseOptions.Builder().build()                              || "2"
+    }
+
+    @Unroll
+    def "get all values without parsing"(String input, String key, List<String> expect) {
+        expect:
+        QS.getAll(input, key) == expect
+
+        where:
+        input                   || key    || expect
+        "id=1&x=0&id=2&id=3"    || "id"   || ["1", "2", "3"]
+        "ids%5B%5D=1&ids[]=2"   || "ids[]" || ["1", "2"]
+        "a=b"                   || "id"   || []
+    }
+}
@@ -1,5 +1,6 @@
 package com.qs.core
 
+import com.qs.core.interfaces.QStreamAware
 import com.qs.core.model.ArrayFormat
 import com.qs.core.model.QSArray
 import com.qs.core.model.QSObject
@@ -122,4 +123,208 @@ class StringifyingTest extends Specification {
         emptyNestedChildObject || new StringifyOptions.Builder().build()                                                       || ""
         addQueryPrefixObject   || new StringifyOptions.Builder().setAddQueryPrefix(true).build()                               || "?a=b&c=d"
     }
+
+    def "stringify into appendable"() {
+        given:
+        def object = new QSObject()
+        object.put("a", new QSArray())
+        object.put("b", "c")
+        object.put("d", new QSObject())
+        object.put("e", "f")
+        def sb = new StringBuilder("https://example.com/")
+
+        when:
+        QS.toQString(object, new StringifyOptions.Builder().setAddQueryPrefix(true).build(), sb)
+
+        then:
+        sb.toString() == "https://example.com/?b=c&e=f"
+    }
+
+    def "empty comma array keeps following delimiter"() {
+        given:
+        def object = new QSObject()
+        object.put("a", new QSArray())
+        object.put("b", "c")
+
+        expect:
+        object.toQString(new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).build()) == "a=&b=c"
+    }
+
+    def "shared prefix is encoded once per key"() {
+        given:
+        def ids = new QSArray()
+        ids.add("x y")
+        ids.add("z")
+        def inner = new QSObject()
+        inner.put("c[", ids)
+        inner.put("d", "e")
+        def object = new QSObject()
+        object.put("a b", inner)
+        object.put("f", "g")
+
+        expect:
+        object.toQString(options) == expect
+
+        where:
+        options                                                                        || expect
+        new StringifyOptions.Builder().build()                                         || "a+b%5Bc%5B%5D%5B0%5D=x+y&a+b%5Bc%5B%5D%5B1%5D=z&a+b%5Bd%5D=e&f=g"
+        new StringifyOptions.Builder().setArrayFormat(ArrayFormat.BRACKETS).build()    || "a+b%5Bc%5B%5D%5B%5D=x+y&a+b%5Bc%5B%5D%5B%5D=z&a+b%5Bd%5D=e&f=g"
+        new StringifyOptions.Builder().setArrayFormat(ArrayFormat.REPEAT).build()      || "a+b%5Bc%5B%5D=x+y&a+b%5Bc%5B%5D=z&a+b%5Bd%5D=e&f=g"
+        new StringifyOptions.Builder().setAllowDots(true).build()                      || "a+b.c%5B.0=x+y&a+b.c%5B.1=z&a+b.d=e&f=g"
+        new StringifyOptions.Builder().setEncodeValuesOnly(true).build()               || "a b[c[][0]=x+y&a b[c[][1]=z&a b[d]=e&f=g"
+    }
+
+    def "stream large object to writer, stream and channel"() {
+        given:
+        def object = new QSObject()
+        for (int i = 0; i < 2000; i++) {
+            object.put("key" + i, "值😀" + i)
+        }
+        def options = new StringifyOptions.Builder().setEncode(encode).build()
+        def expect = object.toQString(options)
+        def writer = new StringWriter()
+        def stream = new ByteArrayOutputStream()
+        def channelStream = new ByteArrayOutputStream()
+
+        when:
+        object.writeQString(writer, options)
+        object.writeQString(stream, options)
+        object.writeQString(java.nio.channels.Channels.newChannel(channelStream), options)
+
+        then:
+        writer.toString() == expect
+        stream.toString("UTF-8") == expect
+        channelStream.toString("UTF-8") == expect
+
+        where:
+        encode << [true, false]
+    }
+
+    def "stream defaults for external implementations"() {
+        given:
+        def aware = new QStreamAware() {
+            @Override
+            void writeQString(Writer out) throws IOException {
+                writeQString(out, new StringifyOptions.Builder().build())
+            }
+
+            @Override
+            void writeQString(Writer out, StringifyOptions options) throws IOException {
+                out.write("a=" + (options.isEncode() ? "%E5%80%BC" : "值😀"))
+            }
+        }
+        def stream = new ByteArrayOutputStream()
+        def channelStream = new ByteArrayOutputStream()
+
+        when:
+        aware.writeQString(stream, new StringifyOptions.Builder().setEncode(false).build())
+        aware.writeQString(java.nio.channels.Channels.newChannel(channelStream))
+
+        then:
+        stream.toString("UTF-8") == "a=值😀"
+        channelStream.toString("UTF-8") == "a=%E5%80%BC"
+    }
+
+    def "encoder matches URLEncoder"() {
+        expect:
+        com.qs.core.util.QSEncoder.encode(input) == URLEncoder.encode(input, "UTF-8")
+
+        where:
+        input << ["", "abc.-*_", "a b+c&d=e", "[]~!'()", "é中文", "😀x", chars(0xD83D), "a" + chars(0xDE00) + "b",
+                  chars(0x0000, 0x007F, 0x0080, 0x07FF, 0x0800, 0xFFFF)]
+    }
+
+    private static String chars(int... codes) {
+        new String(codes.collect { (char) it } as char[])
+    }
+
+    def "stringify to utf-8 bytes"() {
+        given:
+        def object = new QSObject()
+        def inner = new QSObject()
+        inner.put("名", "值 😀")
+        object.put("a", inner)
+        object.put("b", "c&d")
+        def options = new StringifyOptions.Builder().setEncode(encode).build()
+        def expect = object.toQString(options).getBytes("UTF-8")
+        def buffer = java.nio.ByteBuffer.allocate(64)
+
+        when:
+        QS.toQBytes(object, options, buffer)
+
+        then:
+        QS.toQBytes(object, options) == expect
+        Arrays.copyOf(buffer.array(), buffer.position()) == expect
+
+        where:
+        encode << [true, false]
+    }
+
+    def "byte buffer overflow"() {
+        given:
+        def object = new QSObject()
+        object.put("a", "b")
+
+        when:
+        QS.toQBytes(object, new StringifyOptions.Builder().build(), java.nio.ByteBuffer.allocate(2))
+
+        then:
+        thrown(java.nio.BufferOverflowException)
+    }
+
+    @Unroll
+    def "byte buffer overflow keeps the position with direct #direct"() {
+        given:
+        def object = new QSObject()
+        (0..<2000).each { object.put("k" + it, "值" + it) }
+        def options = new StringifyOptions.Builder().setEncode(false).build()
+        def expect = object.toQString(options).getBytes("UTF-8")
+        def small = direct ? java.nio.ByteBuffer.allocateDirect(expect.length + 2) : java.nio.ByteBuffer.allocate(expect.length + 2)
+        small.position(3)
+        def large = direct ? java.nio.ByteBuffer.allocateDirect(expect.length + 8) : java.nio.ByteBuffer.allocate(expect.length + 8)
+        large.position(5)
+
+        when:
+        QS.toQBytes(object, options, small)
+
+        then:
+        thrown(java.nio.BufferOverflowException)
+        small.position() == 3
+
+        when:
+        QS.toQBytes(object, options, large)
+        def written = new byte[expect.length]
+        large.flip().position(5)
+        large.get(written)
+
+        then:
+        written == expect
+
+        where:
+        direct << [false, true]
+    }
+
+    def "sorted stringify"() {
+        given:
+        def object = QS.parse("c=3&a[z]=1&a[b]=2&b[]=y&b[]=x")
+
+        expect:
+        object.toQString(new StringifyOptions.Builder().setEncode(false).setSort(Comparator.naturalOrder()).build()) == "a[b]=2&a[z]=1&b[0]=y&b[1]=x&c=3"
+        object.toQString(new StringifyOptions.Builder().setEncode(false).setSort(Comparator.reverseOrder()).build()) == "c=3&b[0]=y&b[1]=x&a[z]=1&a[b]=2"
+        object.toQString(StringifyOptions.CANONICAL) == "a%5Bb%5D=2&a%5Bz%5D=1&b%5B0%5D=y&b%5B1%5D=x&c=3"
+    }
+
+    def "canonical hash ignores key order"() {
+        given:
+        def hash = QS.canonicalHash("c=3&a[z]=1&a[b]=2&b[]=y&b[]=x")
+        def object = QS.parse("a[b]=2&b[0]=y&c=3&a[z]=1&b[1]=x")
+        def expect = com.google.common.hash.Hashing.murmur3_128()
+                .hashBytes("a%5Bb%5D=2&a%5Bz%5D=1&b%5B0%5D=y&b%5B1%5D=x&c=3".getBytes("UTF-8"))
+
+        expect:
+        QS.canonicalHash(object) == hash
+        QS.canonicalHash(object) == expect.asLong()
+        QS.canonicalHash128(object) == expect.asBytes()
+        QS.canonicalHash("a=1&b[]=y&b[]=x") != QS.canonicalHash("a=1&b[]=x&b[]=y")
+    }
 }
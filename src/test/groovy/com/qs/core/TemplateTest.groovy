@@ -0,0 +1,104 @@
+package com.qs.core
+
+import com.qs.core.model.ArrayFormat
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import com.qs.core.model.StringifyOptions
+import com.qs.core.stringify.QueryTemplate
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class TemplateTest extends Specification {
+
+    @Unroll
+    def "template output equals Stringifier: #options.arrayFormat"() {
+        given:
+        def template = QueryTemplate.compile("?q={}&page[size]={}&page[number]={}&fields[]={}&f[a b]={}&fixed=x y", options)
+        def page = new QSObject()
+        page.put("size", "20")
+        page.put("number", null)
+        def fields = new QSArray()
+        fields.add("id")
+        fields.add("name&")
+        def f = new QSObject()
+        f.put("a b", "é")
+        def object = new QSObject()
+        object.put("q", "a b")
+        object.put("page", page)
+        object.put("fields", fields)
+        object.put("f", f)
+        object.put("fixed", "x y")
+
+        expect:
+        template.size() == 5
+        template.render("a b", 20, null, ["id", "name&"], "é") == object.toQString(options)
+        template.render("a b", 20, null, ["id", "name&"] as String[], "é") == object.toQString(options)
+
+        where:
+        options << [
+                new StringifyOptions.Builder().build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.BRACKETS).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.REPEAT).setEncode(false).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).build(),
+                new StringifyOptions.Builder().setAllowDots(true).setEncodeValuesOnly(true).build(),
+                new StringifyOptions.Builder().setSkipNulls(true).setAddQueryPrefix(true).build(),
+                new StringifyOptions.Builder().setStrictNullHandling(true).build(),
+        ]
+    }
+
+    @Unroll
+    def "primitive arrays render like lists: #options.arrayFormat"() {
+        given:
+        def template = QueryTemplate.compile("a[]={}&b={}", options)
+
+        expect:
+        template.render([1, 2] as int[], [3, 4] as short[]) == template.render([1, 2], [3, 4])
+        template.render([1L, -2L] as long[], [true, false] as boolean[]) == template.render([1L, -2L], [true, false])
+        template.render([1.5d] as double[], ["é", " ", "a"] as char[]) == template.render([1.5d], ["é", " ", "a"])
+        template.render([0.5f] as float[], [] as byte[]) == template.render([0.5f], [])
+        template.render("x", [-1] as byte[]) == template.render("x", [-1])
+
+        where:
+        options << [
+                new StringifyOptions.Builder().build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.BRACKETS).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.REPEAT).setEncode(false).build(),
+                new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).build(),
+                new StringifyOptions.Builder().setStrictNullHandling(true).setAllowDots(true).build(),
+        ]
+    }
+
+    def "named placeholders"() {
+        given:
+        def template = QueryTemplate.compile("q={q}&page[size]={size}&ids[]={ids}", new StringifyOptions.Builder().setEncode(false).build())
+        def sb = new StringBuilder("/search?")
+
+        when:
+        template.render(sb, [q: "x", size: 10, ids: [1, 2, 3]])
+
+        then:
+        template.getNames() == ["q", "size", "ids"]
+        sb.toString() == "/search?q=x&page[size]=10&ids[0]=1&ids[1]=2&ids[2]=3"
+        template.render([q: "y", ids: 7]) == "q=y&page[size]=&ids[0]=7"
+    }
+
+    def "wrong arguments"() {
+        when:
+        QueryTemplate.compile("a={}&b={}").render("x")
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        QueryTemplate.compile("a={}").render([a: "x"])
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        QueryTemplate.compile("a[={}")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
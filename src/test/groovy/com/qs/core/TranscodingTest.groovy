@@ -0,0 +1,152 @@
+package com.qs.core
+
+import com.google.gson.Gson
+import com.qs.core.model.ArrayFormat
+import com.qs.core.model.ParseOptions
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import com.qs.core.model.StringifyOptions
+import com.qs.core.parser.ParseException
+import com.qs.core.stringify.QueryJsonTranscoder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class TranscodingTest extends Specification {
+
+    @Unroll
+    def "query to json matches parse then toJsonString: #input"() {
+        expect:
+        QS.queryToJson(input, options) == QS.parse(input, options).toJsonString()
+        new String(QS.queryToJsonBytes(input, options), "UTF-8") == QS.parse(input, options).toJsonString()
+
+        where:
+        input                                                  || options
+        "a=b&c=d"                                              || new ParseOptions.Builder().build()
+        "a[b][c]=d&a[b][e]=f&a[g]=h"                           || new ParseOptions.Builder().build()
+        "a=b&a=c&a=d"                                          || new ParseOptions.Builder().build()
+        "a[]=b&a[]=c&a[x]=e&a[y][]=f"                          || new ParseOptions.Builder().build()
+        "a[0]=b&a[1]=c&a[1]=d"                                 || new ParseOptions.Builder().build()
+        "a[b][c][d][e][f][g]=h"                                || new ParseOptions.Builder().build()
+        "a%5Bb%5D=%E4%B8%AD+%22quoted%22&c=x%5Cy"              || new ParseOptions.Builder().build()
+        "a&b=&c"                                               || new ParseOptions.Builder().setStrictNullHandling(true).build()
+        "a=b,c&d=e"                                            || new ParseOptions.Builder().setComma(true).build()
+        "a.b.c=d&a.b.e=f"                                      || new ParseOptions.Builder().setAllowDots(true).build()
+        "?a[0]=b&a[1][c]=d"                                    || new ParseOptions.Builder().setIgnoreQueryPrefix(true).build()
+    }
+
+    def "query to json matches parse on random queries"() {
+        given:
+        def random = new Random(37)
+        def segments = ["a", "b", "0", "1", "2", "", "c.d", "%5B", "x%20y"]
+        def values = ["v", "", "1,2", "%E4%B8%AD", "a+b", "%22q%22"]
+        def optionsList = [new ParseOptions.Builder().build(),
+                           new ParseOptions.Builder().setComma(true).setStrictNullHandling(true).build(),
+                           new ParseOptions.Builder().setAllowDots(true).setDepth(2).build(),
+                           new ParseOptions.Builder().setParseArrays(false).build()]
+
+        expect:
+        (0..<2000).every {
+            def pairs = (0..random.nextInt(6)).collect {
+                def key = segments[random.nextInt(3)] + (0..<random.nextInt(4)).collect { "[" + segments[random.nextInt(segments.size())] + "]" }.join("")
+                random.nextInt(8) == 0 ? key : key + "=" + values[random.nextInt(values.size())]
+            }
+            def input = pairs.join("&")
+            def options = optionsList[random.nextInt(optionsList.size())]
+            def expect
+            try {
+                expect = QS.parse(input, options).toJsonString()
+            } catch (Exception e) {
+                expect = e.class
+            }
+            def actual
+            try {
+                actual = QS.queryToJson(input, options)
+            } catch (Exception e) {
+                actual = e.class
+            }
+            assert actual == expect: input
+            true
+        }
+    }
+
+    def "query to json streams to an OutputStream"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        QueryJsonTranscoder.toJson("a[b]=%E4%B8%AD&a[c][]=d&a[c][]=e", new ParseOptions.Builder().build(), out)
+
+        then:
+        out.toString("UTF-8") == '{"a":{"b":"中","c":["d","e"]}}'
+    }
+
+    @Unroll
+    def "json to query matches Stringifier: #json"() {
+        given:
+        def object = toQSObject(new Gson().fromJson(json, Map))
+
+        expect:
+        [ArrayFormat.INDICES, ArrayFormat.BRACKETS, ArrayFormat.REPEAT, ArrayFormat.COMMA].every { format ->
+            [new StringifyOptions.Builder().setArrayFormat(format).build(),
+             new StringifyOptions.Builder().setArrayFormat(format).setEncode(false).setAllowDots(true).build(),
+             new StringifyOptions.Builder().setArrayFormat(format).setEncodeValuesOnly(true).setSkipNulls(true).build(),
+             new StringifyOptions.Builder().setArrayFormat(format).setStrictNullHandling(true).setAddQueryPrefix(true).build()].every { options ->
+                QS.jsonToQuery(json, options) == object.toQString(options)
+            }
+        }
+
+        where:
+        json << [
+                '{}',
+                '{"a":"b","c":"d"}',
+                '{ "a" : { "b" : [ "c", "d" ], "e" : { } }, "f" : [ ], "g" : null }',
+                '{"a":[{"b":"c"},{"d":["e",null]}],"h":"x"}',
+                '{"名 字":"值 \\"\\u00e9\\n","k&=":"v/\\/"}',
+                '{"a":[["b"],["c","d"]]}',
+        ]
+    }
+
+    def "json to query keeps number and boolean literals"() {
+        expect:
+        QS.jsonToQuery('{"a":1.50,"b":-2e3,"c":[true,false,null]}', new StringifyOptions.Builder().setEncode(false).build()) ==
+                "a=1.50&b=-2e3&c[0]=true&c[1]=false&c[2]="
+        QS.jsonToQuery('{"c":[1,{"x":"y"},[2,3]]}', new StringifyOptions.Builder().setArrayFormat(ArrayFormat.COMMA).build()) ==
+                "c=1,{x=y},[2, 3]"
+    }
+
+    def "json to query accepts the JSON number grammar and keeps duplicate keys"() {
+        expect:
+        QS.jsonToQuery('{"a":0,"b":-0.5,"c":1E+2,"d":12.0e-3,"e":[-1,0]}', new StringifyOptions.Builder().setEncode(false).build()) ==
+                "a=0&b=-0.5&c=1E+2&d=12.0e-3&e[0]=-1&e[1]=0"
+        QS.jsonToQuery('{"a":1,"a":2}') == "a=1&a=2"
+    }
+
+    @Unroll
+    def "malformed json: #json"() {
+        when:
+        QS.jsonToQuery(json)
+
+        then:
+        thrown(ParseException)
+
+        where:
+        json << ['', '[]', '{"a":}', '{"a":"b"', '{"a":"b"}x', '{"a" "b"}', '{"a":tru}', '{"a":"\\x"}',
+                 '{"a":--1}', '{"a":1e+-.}', '{"a":+1}', '{"a":.5}', '{"a":01}', '{"a":1.}', '{"a":1e}', '{"a":-}', '{"a":[1-2]}']
+    }
+
+    private static QSObject toQSObject(Map<String, Object> map) {
+        def object = new QSObject()
+        map.each { key, value -> object.put(key, toQSValue(value)) }
+        object
+    }
+
+    private static Object toQSValue(Object value) {
+        if (value instanceof Map) return toQSObject(value)
+        if (value instanceof List) {
+            def array = new QSArray()
+            value.each { array.add(toQSValue(it)) }
+            return array
+        }
+        value
+    }
+}
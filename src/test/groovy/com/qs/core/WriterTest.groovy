@@ -0,0 +1,92 @@
+package com.qs.core
+
+import com.qs.core.model.QSArray
+import com.qs.core.model.QSObject
+import com.qs.core.stringify.QSWriters
+import spock.lang.Specification
+
+class WriterTest extends Specification {
+
+    def "generated writer matches stringifier"() {
+        setup:
+        def request = new WriterRequest()
+        request.q = "a b"
+        request.sort = WriterRequest.Sort.DESC
+        request.page = new WriterRequest.Page()
+        request.page.size = 10
+        request.ids = [1, 2] as int[]
+        request.items = [new WriterRequest.Item("x"), new WriterRequest.Item(null)]
+
+        def page = new QSObject()
+        page.put("size", 10)
+        page.put("number", null)
+        def ids = new QSArray()
+        ids.add(1)
+        ids.add(2)
+        def item0 = new QSObject()
+        item0.put("name", "x")
+        def item1 = new QSObject()
+        item1.put("name", null)
+        def items = new QSArray()
+        items.add(item0)
+        items.add(item1)
+        def object = new QSObject()
+        object.put("q", "a b")
+        object.put("sort", "DESC")
+        object.put("debug", false)
+        object.put("flag", "&")
+        object.put("page", page)
+        object.put("ids", ids)
+        object.put("items", items)
+
+        expect:
+        def result = QSWriters.of(WriterRequest).toQString(request)
+        result == object.toQString()
+        result == "q=a+b&sort=DESC&debug=false&flag=%26&page%5Bsize%5D=10&page%5Bnumber%5D=&ids%5B0%5D=1&ids%5B1%5D=2" +
+                "&items%5B0%5D%5Bname%5D=x&items%5B1%5D%5Bname%5D="
+    }
+
+    def "generated writer honors annotation options"() {
+        expect:
+        QSWriters.of(WriterRequest.Brackets).toQString(new WriterRequest.Brackets()) == "tags[]=a&tags[]=b&page[size]=0"
+        QSWriters.of(WriterRequest.Comma).toQString(new WriterRequest.Comma()) == "ids=1,2&missing&page.size=0&page.number"
+    }
+
+    def "writer appends to existing content"() {
+        setup:
+        def sb = new StringBuilder("https://a.com/?")
+
+        when:
+        QSWriters.of(WriterRequest.Brackets).write(new WriterRequest.Brackets(), sb)
+
+        then:
+        sb.toString() == "https://a.com/?tags[]=a&tags[]=b&page[size]=0"
+    }
+
+    def "map fields are rejected at compile time"() {
+        given:
+        def compiler = javax.tools.ToolProvider.getSystemJavaCompiler()
+        def diagnostics = new javax.tools.DiagnosticCollector<javax.tools.JavaFileObject>()
+        def source = new javax.tools.SimpleJavaFileObject(URI.create("string:///MapRequest.java"), javax.tools.JavaFileObject.Kind.SOURCE) {
+            @Override
+            CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return "@com.qs.core.annotation.QSWritable public class MapRequest { public java.util.Map<String, String> m; }"
+            }
+        }
+        def output = java.nio.file.Files.createTempDirectory("writer")
+
+        when:
+        def task = compiler.getTask(null, null, diagnostics,
+                ["-proc:only", "-classpath", System.getProperty("java.class.path"), "-d", output.toString(), "-s", output.toString()],
+                null, [source])
+        task.setProcessors([new com.qs.core.processor.QSWriterProcessor()])
+        def success = task.call()
+
+        then:
+        !success
+        diagnostics.diagnostics.any { it.kind == javax.tools.Diagnostic.Kind.ERROR && it.getMessage(null).contains("Map type") }
+
+        cleanup:
+        output.toFile().deleteDir()
+    }
+}
@@ -0,0 +1,80 @@
+package com.qs.core;
+
+import java.util.List;
+import java.util.Set;
+
+public class BindRequest {
+
+    public enum Sort {
+        ASC, DESC
+    }
+
+    public static class Page {
+        private int size;
+        private long number;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+    }
+
+    public static class Filter {
+        public long[] ids;
+        public Set<String> tags;
+        public Boolean active;
+    }
+
+    public static class Item {
+        public String name;
+        public Integer count;
+    }
+
+    private String q;
+    private Sort sort;
+    private boolean debug;
+    private double ratio;
+    private Page page;
+    private Filter filter;
+    private List<Item> items;
+    private List<Integer> numbers;
+
+    public String getQ() {
+        return q;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public Page getPage() {
+        return page;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<Integer> getNumbers() {
+        return numbers;
+    }
+}
@@ -0,0 +1,56 @@
+package com.qs.core;
+
+import com.qs.core.annotation.QSWritable;
+import com.qs.core.model.ArrayFormat;
+
+import java.util.Arrays;
+import java.util.List;
+
+@QSWritable
+public class WriterRequest {
+
+    public enum Sort {
+        ASC, DESC
+    }
+
+    public static class Page {
+        int size;
+        Long number;
+    }
+
+    public static class Item {
+        private String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @QSWritable(arrayFormat = ArrayFormat.BRACKETS, encode = false, skipNulls = true)
+    public static class Brackets {
+        String q;
+        String missing;
+        List<String> tags = Arrays.asList("a", "b");
+        Page page = new Page();
+    }
+
+    @QSWritable(arrayFormat = ArrayFormat.COMMA, allowDots = true, strictNullHandling = true)
+    public static class Comma {
+        int[] ids = {1, 2};
+        String missing;
+        Page page = new Page();
+    }
+
+    String q;
+    Sort sort;
+    boolean debug;
+    char flag = '&';
+    Page page;
+    int[] ids;
+    List<Item> items;
+    transient String ignored = "x";
+}